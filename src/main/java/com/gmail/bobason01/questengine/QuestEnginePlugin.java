@@ -10,10 +10,13 @@ import com.gmail.bobason01.questengine.gui.editor.QuestEditorMenu;
 import com.gmail.bobason01.questengine.party.PartyHook;
 import com.gmail.bobason01.questengine.papi.QuestPapiExpansion;
 import com.gmail.bobason01.questengine.progress.ProgressRepository;
+import com.gmail.bobason01.questengine.quest.QuestFolderWatcher;
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
 import com.gmail.bobason01.questengine.quest.QuestRepository;
 import com.gmail.bobason01.questengine.runtime.DynamicEventListener;
 import com.gmail.bobason01.questengine.runtime.Engine;
 import com.gmail.bobason01.questengine.runtime.EventDispatcher;
+import com.gmail.bobason01.questengine.runtime.SessionListener;
 import com.gmail.bobason01.questengine.util.Msg;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -43,6 +46,7 @@ public final class QuestEnginePlugin extends JavaPlugin {
     private Msg msg;
     private QuestGuiManager gui;
     private QuestEditorMenu editorMenu;
+    private QuestFolderWatcher questWatcher;
 
     @Override
     public void onEnable() {
@@ -63,8 +67,20 @@ public final class QuestEnginePlugin extends JavaPlugin {
             getLogger().warning("[QuestEngine] Failed to extract default quests: " + e.getMessage());
         }
 
+        // 퀘스트 정의보다 먼저: QuestDef 가 생성 시 ordinal 을 받음
+        QuestOrdinals.bind(new File(getDataFolder(), "ordinals.txt"), getLogger());
+
         quests = new QuestRepository(this, questDir);
         progress = new ProgressRepository(this);
+        new SessionListener(this, progress);
+
+        if (getConfig().getBoolean("quests.watch", true)) {
+            try {
+                questWatcher = new QuestFolderWatcher(this, quests, getConfig().getLong("quests.watch-debounce-ms", 500L));
+            } catch (Throwable t) {
+                getLogger().warning("[QuestEngine] Quest folder watcher unavailable: " + t.getMessage());
+            }
+        }
 
         asyncPool = Executors.newFixedThreadPool(
                 Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
@@ -79,8 +95,8 @@ public final class QuestEnginePlugin extends JavaPlugin {
 
         for (Player p : Bukkit.getOnlinePlayers()) {
             try {
-                progress.preload(p.getUniqueId());
-                getLogger().info("[QuestEngine] Cached progress for " + p.getName());
+                progress.join(p.getUniqueId(), p.getName());
+                getLogger().info("[QuestEngine] Loading progress for " + p.getName());
             } catch (Throwable t) {
                 getLogger().warning("[QuestEngine] Failed to preload " + p.getName() + ": " + t.getMessage());
             }
@@ -125,6 +141,7 @@ public final class QuestEnginePlugin extends JavaPlugin {
 
         try {
             HandlerList.unregisterAll(this);
+            if (questWatcher != null) questWatcher.close();
             if (engine != null) engine.shutdown();
             if (progress != null) progress.close();
             if (asyncPool != null && !asyncPool.isShutdown()) asyncPool.shutdownNow();
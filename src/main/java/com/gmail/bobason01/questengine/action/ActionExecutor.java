@@ -105,6 +105,12 @@ public final class ActionExecutor {
         }
     }
 
+    /** 리로드된 퀘스트의 컴파일 캐시 제거 */
+    public void invalidate(Collection<String> questIds) {
+        if (questIds == null || questIds.isEmpty()) return;
+        compiledCache.keySet().removeIf(k -> questIds.contains(k.questId()));
+    }
+
     /** 퀘스트의 특정 액션 시퀀스를 실행 */
     public void runAll(QuestDef q, String type, Player p) {
         if (q == null || q.actions == null) return;
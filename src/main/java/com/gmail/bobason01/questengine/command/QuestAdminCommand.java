@@ -2,6 +2,7 @@ package com.gmail.bobason01.questengine.command;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.quest.QuestDef;
+import com.gmail.bobason01.questengine.util.MainThread;
 import com.gmail.bobason01.questengine.util.Msg;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -10,7 +11,6 @@ import org.bukkit.command.*;
         import org.bukkit.entity.Player;
 
 import java.util.*;
-        import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -67,9 +67,7 @@ public final class QuestAdminCommand extends BaseCommand implements TabCompleter
             case SUB_RELOAD -> {
                 try {
                     plugin.msg().reload(); // 메시지 파일 다시 로드
-                    plugin.engine().quests().reload(); // 퀘스트 다시 로드
-                    plugin.engine().quests().rebuildEventMap(); // 이벤트 매핑 갱신
-                    plugin.engine().refreshEventCache(); // 엔진 캐시 초기화
+                    plugin.engine().quests().reload(); // 퀘스트 다시 로드 (인덱스 포함 스냅샷 교체)
 
                     s.sendMessage(color("&a[QuestEngine] Reload complete: messages + quests reloaded."));
                     plugin.getLogger().info("[QuestEngine] Reload complete: messages + quests reloaded");
@@ -148,12 +146,14 @@ public final class QuestAdminCommand extends BaseCommand implements TabCompleter
         Player p = findOnlinePlayer(a[1]);
         if (p == null) { s.sendMessage(color(msg.get("admin.offline"))); return; }
 
-        plugin.engine().progress().reset(p.getUniqueId(), p.getName(), a[2]);
-        String m = msg.get("admin.reset_done");
-        if (m == null) m = "&7Reset complete";
-        s.sendMessage(color(m
-                .replace("%quest_name%", a[2])
-                .replace("%player%", p.getName())));
+        String playerName = p.getName();
+        MainThread.then(plugin, plugin.engine().progress().resetAsync(p.getUniqueId(), playerName, a[2]), v -> {
+            String m = msg.get("admin.reset_done");
+            if (m == null) m = "&7Reset complete";
+            s.sendMessage(color(m
+                    .replace("%quest_name%", a[2])
+                    .replace("%player%", playerName)));
+        });
     }
 
     private void doList(CommandSender s, String[] a) {
@@ -167,20 +167,20 @@ public final class QuestAdminCommand extends BaseCommand implements TabCompleter
         if (a.length < 2) { s.sendMessage(color(msg.get("admin.usage"))); return; }
         Player p = findOnlinePlayer(a[1]);
         if (p == null) { s.sendMessage(color(msg.get("admin.offline"))); return; }
-        int pts = plugin.engine().progress().getPoints(p.getUniqueId());
-
-        String m = msg.get("admin.points");
-        if (m == null) m = "&e%player% Quest Points: %points%";
-        s.sendMessage(color(m
-                .replace("%player%", p.getName())
-                .replace("%points%", Integer.toString(pts))));
+        String playerName = p.getName();
+        MainThread.then(plugin, plugin.engine().progress().pointsAsync(p.getUniqueId(), playerName), pts -> {
+            String m = msg.get("admin.points");
+            if (m == null) m = "&e%player% Quest Points: %points%";
+            s.sendMessage(color(m
+                    .replace("%player%", playerName)
+                    .replace("%points%", Integer.toString(pts))));
+        });
     }
 
     private void doRank(CommandSender s) {
         s.sendMessage(color(msg.get("admin.rank_calc")));
 
-        CompletableFuture.runAsync(() -> {
-            Map<UUID, Integer> all = plugin.engine().progress().getAllPoints();
+        plugin.engine().progress().allPointsAsync().thenAcceptAsync(all -> {
             if (all == null || all.isEmpty()) {
                 Bukkit.getScheduler().runTask(plugin, () -> s.sendMessage(color("&7데이터가 없습니다.")));
                 return;
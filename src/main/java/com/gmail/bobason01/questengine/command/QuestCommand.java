@@ -2,12 +2,11 @@ package com.gmail.bobason01.questengine.command;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.quest.QuestDef;
-import org.bukkit.Bukkit;
+import com.gmail.bobason01.questengine.util.MainThread;
 import org.bukkit.command.*;
 import org.bukkit.entity.Player;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * QuestCommand
@@ -131,13 +130,11 @@ public final class QuestCommand extends BaseCommand implements TabCompleter {
     }
 
     private void showPoints(Player p) {
-        CompletableFuture
-                .supplyAsync(() -> plugin.engine().progress().getPoints(p.getUniqueId()), plugin.engine().asyncPool())
-                .thenAccept(points -> Bukkit.getScheduler().runTask(plugin, () -> {
-                    String msg = plugin.msg().get("list_header") + "§f "
-                            + plugin.msg().get("list.points").replace("%points%", String.valueOf(points));
-                    p.sendMessage(msg);
-                }));
+        MainThread.then(plugin, plugin.engine().progress().pointsAsync(p.getUniqueId(), p.getName()), points -> {
+            String msg = plugin.msg().get("list_header") + "§f "
+                    + plugin.msg().get("list.points").replace("%points%", String.valueOf(points));
+            p.sendMessage(msg);
+        });
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.gmail.bobason01.questengine.command;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.progress.ProgressRepository;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -39,7 +40,12 @@ public final class QuestEngineCommand extends BaseCommand {
             return true;
         }
         if (CACHE.equals(sub)) {
-            s.sendMessage("§eCached players: §f" + plugin.engine().progress().cacheSize());
+            s.sendMessage("§eCached players: §f" + plugin.engine().progress().cacheSize()
+                    + " §7(sessions: " + plugin.engine().progress().sessionCount() + ")");
+            ProgressRepository.FlushStats f = plugin.engine().progress().flushStats();
+            s.sendMessage("§eFlushes: §f" + f.flushes() + " §7(last: " + f.lastPlayers() + " players, " + f.lastRows()
+                    + " rows, " + f.lastMillis() + "ms / max " + f.maxMillis() + "ms, overruns: " + f.overruns()
+                    + ", failed: " + f.lastFailed() + ")");
             return true;
         }
         if (PAPI.equals(sub)) {
@@ -1,6 +1,7 @@
 package com.gmail.bobason01.questengine.gui;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.util.MainThread;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.properties.Property;
 import org.bukkit.Bukkit;
@@ -69,8 +70,8 @@ public final class LeaderboardMenu implements Listener {
     }
 
     private void drawTopPlayersAsync(Inventory inv) {
-        CompletableFuture.runAsync(() -> {
-            List<Map.Entry<UUID, Integer>> top = plugin.engine().progress().top(36);
+        // 랭킹 집계는 진행 저장소의 로더 스레드에서, 슬롯 채우기는 메인 스레드에서
+        MainThread.then(plugin, plugin.engine().progress().topAsync(36), top -> {
             int[] slots = gridSlots();
 
             for (int i = 0; i < top.size() && i < slots.length; i++) {
@@ -80,8 +81,7 @@ public final class LeaderboardMenu implements Listener {
                 int points = e.getValue();
                 int slot = slots[i];
 
-                ItemStack head = buildPlayerHead(uuid, rank, points);
-                Bukkit.getScheduler().runTask(plugin, () -> inv.setItem(slot, head));
+                inv.setItem(slot, buildPlayerHead(uuid, rank, points));
 
                 // 온라인 모드 + 스킨 조회 캐시 처리
                 if (Bukkit.getOnlineMode() && !TEXTURE_CACHE.containsKey(uuid)) {
@@ -99,7 +99,7 @@ public final class LeaderboardMenu implements Listener {
                     }, asyncPool);
                 }
             }
-        }, asyncPool);
+        });
     }
 
     private ItemStack buildPlayerHead(UUID uuid, int rank, int points) {
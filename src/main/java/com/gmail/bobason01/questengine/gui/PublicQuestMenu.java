@@ -2,6 +2,7 @@ package com.gmail.bobason01.questengine.gui;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.quest.QuestDef;
+import com.gmail.bobason01.questengine.util.MainThread;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -34,9 +35,15 @@ public final class PublicQuestMenu implements Listener {
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
+    /** 진행 중 목록이 메모리에 없으면 로드 스레드에서 읽어 온 뒤 메인 스레드에서 열기 */
     public void open(Player p, int page) {
         if (p == null) return;
+        MainThread.then(plugin, plugin.engine().progress().activeIdsAsync(p.getUniqueId(), p.getName()), active -> {
+            if (p.isOnline()) open(p, page, new HashSet<>(active));
+        });
+    }
 
+    private void open(Player p, int page, Set<String> active) {
         String title = ChatColor.translateAlternateColorCodes('&',
                 plugin.msg().get("gui.public.title").replace("%page%", String.valueOf(page + 1)));
         Inventory inv = Bukkit.createInventory(new GuiHolder("Q_PUBLIC"), 54, title);
@@ -45,7 +52,7 @@ public final class PublicQuestMenu implements Listener {
         fill(inv);
         drawTopBar(p, inv);
         drawBottomBar(inv);
-        drawQuests(p, inv, page);
+        drawQuests(p, inv, page, active);
 
         plugin.gui().putSession(p, "public_page", page);
         playSounds(p, "open");
@@ -76,12 +83,11 @@ public final class PublicQuestMenu implements Listener {
                     List.of(plugin.msg().get("gui.public.next_lore"))));
     }
 
-    private void drawQuests(Player p, Inventory inv, int page) {
+    private void drawQuests(Player p, Inventory inv, int page, Set<String> active) {
         List<QuestDef> all = safeAll().stream()
                 .filter(this::isPublic)
                 .collect(Collectors.toList());
 
-        Set<String> active = new HashSet<>(plugin.engine().progress().activeQuestIds(p.getUniqueId(), p.getName()));
         all = all.stream().filter(q -> !active.contains(idOf(q))).collect(Collectors.toList());
 
         String search = getSearch(p);
@@ -1,7 +1,9 @@
 package com.gmail.bobason01.questengine.gui;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.progress.PlayerData;
 import com.gmail.bobason01.questengine.quest.QuestDef;
+import com.gmail.bobason01.questengine.util.MainThread;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -34,7 +36,15 @@ public final class QuestListMenu implements Listener {
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
+    /** 진행 정보가 메모리에 없으면 로드 스레드에서 읽어 온 뒤 메인 스레드에서 열기 */
     public void open(Player p, int page) {
+        if (p == null) return;
+        MainThread.then(plugin, plugin.engine().progress().ofAsync(p.getUniqueId(), p.getName()), data -> {
+            if (p.isOnline()) open(p, page, data);
+        });
+    }
+
+    private void open(Player p, int page, PlayerData data) {
         String title = ChatColor.translateAlternateColorCodes('&',
                 plugin.msg().get("gui.list.title").replace("%page%", String.valueOf(page + 1)));
 
@@ -44,7 +54,7 @@ public final class QuestListMenu implements Listener {
         fill(inv);
         drawTopBar(p, inv);
         drawBottomBar(inv);
-        drawQuests(p, inv, page);
+        drawQuests(p, inv, page, data);
 
         plugin.gui().putSession(p, "list_page", page);
 
@@ -95,9 +105,8 @@ public final class QuestListMenu implements Listener {
         }
     }
 
-    private void drawQuests(Player p, Inventory inv, int page) {
-        List<String> activeIds =
-                plugin.engine().progress().activeQuestIds(p.getUniqueId(), p.getName());
+    private void drawQuests(Player p, Inventory inv, int page, PlayerData data) {
+        List<String> activeIds = data.activeIds();
 
         List<QuestDef> all = activeIds.stream()
                 .map(id -> plugin.engine().quests().get(id))
@@ -144,7 +153,7 @@ public final class QuestListMenu implements Listener {
 
             lore.add(" ");
 
-            int value = plugin.engine().progress().value(p.getUniqueId(), p.getName(), d.id);
+            int value = data.valueOf(d.ordinal);
             lore.add(ChatColor.translateAlternateColorCodes('&',
                     "&aProgress: &f" + value + "/" + d.amount));
 
@@ -1467,8 +1467,7 @@ public final class QuestEditorMenu implements Listener {
             File file = new File(folder, def.id + ".yml");
             yml.save(file);
 
-            plugin.quests().reload();
-            plugin.quests().rebuildEventMap();
+            plugin.quests().reloadChanged();
 
             String msg = m("gui.editor.save.ok").replace("%id%", def.id);
             player.sendMessage(msg);
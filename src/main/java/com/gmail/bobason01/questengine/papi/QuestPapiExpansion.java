@@ -43,6 +43,13 @@ public final class QuestPapiExpansion extends PlaceholderExpansion {
         CacheNode node = CACHE.get(key);
         if (node != null && now - node.time <= TTL_NANOS) return node.val;
 
+        // 진행 정보가 메모리에 없으면 기다리지 않음: 백그라운드 로드만 걸고 이전 값 반환
+        ProgressRepository repo = plugin.engine().progress();
+        if (!repo.isCached(p.getUniqueId())) {
+            repo.ofAsync(p.getUniqueId(), p.getName());
+            return node != null ? node.val : "";
+        }
+
         String id = rawId.toLowerCase(Locale.ROOT);
         String val = compute(p, id);
 
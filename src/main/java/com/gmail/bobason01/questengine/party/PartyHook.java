@@ -3,36 +3,67 @@ package com.gmail.bobason01.questengine.party;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
 
 /**
  * PartyHook
  * - MMOCore, MythicDungeons, Parties 플러그인 자동 감지 및 통합
  * - 최신 MMOCore (PlayerData) + 구버전 (MMOPlayerData) 모두 지원
- * - 리플렉션 캐시화, 성능 최적화
+ * - 어댑터는 초기화 시 바인딩한 MethodHandle 로 호출 (호출마다 리플렉션 없음)
+ * - UUID -> 불변 파티 스냅샷 캐시 (짧은 TTL), 파티 가입/탈퇴 이벤트와 퇴장 시 무효화
+ *   퀘스트 핫패스의 파티 조회는 캐시 적중 시 맵 조회 한 번
  */
 public final class PartyHook {
 
-    private static PartyAdapter adapter = PartyAdapter.EMPTY;
-    private static boolean enabled = false;
+    private static volatile PartyAdapter adapter = PartyAdapter.EMPTY;
+    private static volatile boolean enabled = false;
+    private static Logger log = Bukkit.getLogger();
 
     private PartyHook() {}
 
-    // --- 리플렉션 캐시 ---
-    private static Method mythic_getParty, mythic_getMembers;
-    private static Method mmo_get, mmo_getParty, mmo_getOnline;
-    private static Method parties_getApi, parties_getPlayer, parties_getPid, parties_getOnline;
-    private static Object parties_api;
+    /* 파티 하나의 멤버 UUID (파티원 전원이 같은 인스턴스를 공유) */
+    private record Snapshot(List<UUID> members, long expiresAt) {}
+
+    private static final Map<UUID, Snapshot> CACHE = new ConcurrentHashMap<>();
+    private static volatile long ttlNanos = 2_000_000_000L;
+
+    // 가입 / 탈퇴 / 해산 시 캐시를 비울 공급자 이벤트 (클래스가 있을 때만 등록)
+    private static final String[] INVALIDATE_EVENTS = {
+            "com.alessiodp.parties.api.events.bukkit.player.BukkitPartiesPlayerPostJoinEvent",
+            "com.alessiodp.parties.api.events.bukkit.player.BukkitPartiesPlayerPostLeaveEvent",
+            "com.alessiodp.parties.api.events.bukkit.party.BukkitPartiesPartyPostDeleteEvent",
+            "net.Indyuce.mmocore.api.event.social.PartyJoinEvent",
+            "net.Indyuce.mmocore.api.event.social.PartyLeaveEvent",
+            "net.playavalon.mythicdungeons.api.events.party.PartyJoinEvent",
+            "net.playavalon.mythicdungeons.api.events.party.PartyLeaveEvent"
+    };
+
+    private static final Listener LISTENER = new Listener() {};
 
     public static void init(Plugin plugin, FileConfiguration cfg) {
+        log = plugin.getLogger();
+        CACHE.clear();
         enabled = cfg.getBoolean("party.enabled", true);
         if (!enabled) {
             adapter = PartyAdapter.EMPTY;
             return;
         }
+        ttlNanos = Math.max(0L, cfg.getLong("party.cache-ttl-ms", 2000L)) * 1_000_000L;
 
         String provider = cfg.getString("party.provider", "auto").toLowerCase(Locale.ROOT);
         if ("auto".equals(provider)) {
@@ -49,6 +80,7 @@ public final class PartyHook {
             default -> adapter = PartyAdapter.EMPTY;
         }
 
+        if (adapter.available()) registerInvalidation(plugin);
         plugin.getLogger().info("[QuestEngine] Party provider " + provider + " available=" + adapter.available());
     }
 
@@ -56,11 +88,87 @@ public final class PartyHook {
         return enabled && adapter.available();
     }
 
+    // ------------------------------------------------------------
+    // 캐시
+    // ------------------------------------------------------------
+
+    /** 파티 멤버 (자기 자신 포함, 온라인만) - 캐시 적중 시 어댑터 호출 없음 */
+    public static Collection<Player> members(Player p) {
+        if (!enabled()) return Collections.singletonList(p);
+
+        long now = System.nanoTime();
+        Snapshot s = CACHE.get(p.getUniqueId());
+        if (s == null || now - s.expiresAt() > 0) {
+            s = refresh(p, now);
+        }
+
+        List<UUID> ids = s.members();
+        if (ids.size() == 1) return Collections.singletonList(p);
+        List<Player> out = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Player m = id.equals(p.getUniqueId()) ? p : Bukkit.getPlayer(id);
+            if (m != null && m.isOnline()) out.add(m);
+        }
+        return out;
+    }
+
+    private static Snapshot refresh(Player p, long now) {
+        Collection<Player> found = adapter.members(p);
+        List<UUID> ids = new ArrayList<>(found.size() + 1);
+        boolean self = false;
+        for (Player m : found) {
+            if (m == null) continue;
+            ids.add(m.getUniqueId());
+            if (m.getUniqueId().equals(p.getUniqueId())) self = true;
+        }
+        if (!self) ids.add(p.getUniqueId());
+
+        Snapshot s = new Snapshot(List.copyOf(ids), now + ttlNanos);
+        for (UUID id : s.members()) CACHE.put(id, s);
+        return s;
+    }
+
+    /** 해당 플레이어가 속한 파티 스냅샷 무효화 */
+    public static void invalidate(UUID id) {
+        if (id == null) return;
+        Snapshot s = CACHE.remove(id);
+        if (s == null) return;
+        for (UUID m : s.members()) CACHE.remove(m, s);
+    }
+
+    public static void invalidateAll() {
+        CACHE.clear();
+    }
+
+    private static void registerInvalidation(Plugin plugin) {
+        PluginManager pm = Bukkit.getPluginManager();
+        pm.registerEvent(PlayerQuitEvent.class, LISTENER, EventPriority.MONITOR,
+                (l, e) -> {
+                    if (e instanceof PlayerQuitEvent q) invalidate(q.getPlayer().getUniqueId());
+                }, plugin, false);
+
+        int hooked = 0;
+        for (String name : INVALIDATE_EVENTS) {
+            try {
+                Class<? extends Event> cls = Class.forName(name).asSubclass(Event.class);
+                pm.registerEvent(cls, LISTENER, EventPriority.MONITOR, (l, e) -> {
+                    if (cls.isInstance(e)) invalidateAll();
+                }, plugin, false);
+                hooked++;
+            } catch (Throwable ignored) {
+                // 해당 공급자 / 버전에 없는 이벤트
+            }
+        }
+        if (hooked == 0) {
+            plugin.getLogger().info("[QuestEngine] No party change events found, party cache relies on TTL");
+        }
+    }
+
     public static Collection<Player> membersNear(Player p, int radius) {
         if (!enabled()) return Collections.singletonList(p);
         List<Player> out = new ArrayList<>(8);
         double limit = radius * (double) radius;
-        for (Player m : adapter.members(p)) {
+        for (Player m : members(p)) {
             if (m == null || !m.isOnline()) continue;
             if (m.getWorld() != p.getWorld()) continue;
             if (m.getLocation().distanceSquared(p.getLocation()) <= limit)
@@ -70,6 +178,24 @@ public final class PartyHook {
         return out;
     }
 
+    // ------------------------------------------------------------
+    // MethodHandle 헬퍼
+    // ------------------------------------------------------------
+
+    /** 모든 인자 / 반환을 Object 로 맞춘 핸들 (invokeExact 용) */
+    private static MethodHandle handle(Method m) throws IllegalAccessException {
+        MethodHandle mh = MethodHandles.publicLookup().unreflect(m);
+        int arity = m.getParameterCount() + (Modifier.isStatic(m.getModifiers()) ? 0 : 1);
+        return mh.asType(MethodType.genericMethodType(arity));
+    }
+
+    /* 호출 실패는 어댑터마다 한 번만 경고 (스택트레이스 출력 없음) */
+    private static void warnOnce(AtomicBoolean flag, String provider, Throwable t) {
+        if (flag.compareAndSet(false, true)) {
+            log.warning("[QuestEngine] " + provider + " party lookup failed: " + t);
+        }
+    }
+
     // ==============================
     // MythicDungeons
     // ==============================
@@ -80,12 +206,13 @@ public final class PartyHook {
             Class<?> mythicPlayerCls = Class.forName("net.playavalon.mythicdungeons.player.MythicPlayer");
             Class<?> mythicPartyCls = Class.forName("net.playavalon.mythicdungeons.player.party.partysystem.MythicParty");
 
-            // 메서드 캐시
-            Method inst = mythicDungeonsCls.getMethod("inst");
-            Method getMythicPlayer = mythicDungeonsCls.getMethod("getMythicPlayer", org.bukkit.entity.Player.class);
-            Method getMythicParty = mythicPlayerCls.getMethod("getMythicParty");
-            Method getMythicPlayers = mythicPartyCls.getMethod("getMythicPlayers");
-            Method getPlayer = mythicPlayerCls.getMethod("getPlayer");
+            // 싱글턴 인스턴스에 바인딩
+            Object api = mythicDungeonsCls.getMethod("inst").invoke(null);
+            MethodHandle getMythicPlayer = handle(mythicDungeonsCls.getMethod("getMythicPlayer", Player.class)).bindTo(api);
+            MethodHandle getMythicParty = handle(mythicPlayerCls.getMethod("getMythicParty"));
+            MethodHandle getMythicPlayers = handle(mythicPartyCls.getMethod("getMythicPlayers"));
+            MethodHandle getPlayer = handle(mythicPlayerCls.getMethod("getPlayer"));
+            AtomicBoolean warned = new AtomicBoolean();
 
             return new PartyAdapter() {
                 @Override
@@ -93,26 +220,23 @@ public final class PartyHook {
                     return true;
                 }
 
-                @SuppressWarnings("unchecked")
                 @Override
                 public Collection<Player> members(Player p) {
                     try {
-                        Object api = inst.invoke(null);
-                        Object mythicPlayer = getMythicPlayer.invoke(api, p);
+                        Object mythicPlayer = (Object) getMythicPlayer.invokeExact((Object) p);
                         if (mythicPlayer == null) return Collections.singletonList(p);
 
-                        Object party = getMythicParty.invoke(mythicPlayer);
+                        Object party = (Object) getMythicParty.invokeExact(mythicPlayer);
                         if (party == null) return Collections.singletonList(p);
 
-                        Collection<Object> mythicPlayers = (Collection<Object>) getMythicPlayers.invoke(party);
+                        Collection<?> mythicPlayers = (Collection<?>) (Object) getMythicPlayers.invokeExact(party);
                         List<Player> list = new ArrayList<>(mythicPlayers.size());
                         for (Object mp : mythicPlayers) {
-                            Player pl = (Player) getPlayer.invoke(mp);
-                            if (pl != null && pl.isOnline()) list.add(pl);
+                            if ((Object) getPlayer.invokeExact(mp) instanceof Player pl && pl.isOnline()) list.add(pl);
                         }
                         return list.isEmpty() ? Collections.singletonList(p) : list;
                     } catch (Throwable ex) {
-                        ex.printStackTrace();
+                        warnOnce(warned, "MythicDungeons", ex);
                         return Collections.singletonList(p);
                     }
                 }
@@ -129,7 +253,7 @@ public final class PartyHook {
     private static PartyAdapter mmoCore() {
         try {
             Class<?> playerDataCls;
-            mmo_get = null;
+            Method get = null;
             String sig = "";
 
             // PlayerData / MMOPlayerData 자동 탐색
@@ -139,30 +263,32 @@ public final class PartyHook {
                 playerDataCls = Class.forName("net.Indyuce.mmocore.api.player.MMOPlayerData");
             }
 
-            // 가능한 모든 get() 시그니처 시도 — 예외 전혀 던지지 않음
+            // 가능한 get() 시그니처 탐색 (찾은 하나만 사용)
             try {
-                mmo_get = playerDataCls.getMethod("get", Player.class);
+                get = playerDataCls.getMethod("get", Player.class);
                 sig = "Player";
             } catch (Throwable ignored) {}
-            if (mmo_get == null) {
+            if (get == null) {
                 try {
-                    mmo_get = playerDataCls.getMethod("get", UUID.class);
+                    get = playerDataCls.getMethod("get", UUID.class);
                     sig = "UUID";
                 } catch (Throwable ignored) {}
             }
-            if (mmo_get == null) {
+            if (get == null) {
                 try {
-                    mmo_get = playerDataCls.getMethod("get", org.bukkit.OfflinePlayer.class);
+                    get = playerDataCls.getMethod("get", org.bukkit.OfflinePlayer.class);
                     sig = "OfflinePlayer";
                 } catch (Throwable ignored) {}
             }
 
-            if (mmo_get == null) {
+            if (get == null) {
                 Bukkit.getLogger().info("[QuestEngine] MMOCore hook skipped (no valid get() found)");
                 return PartyAdapter.EMPTY;
             }
 
-            mmo_getParty = playerDataCls.getMethod("getParty");
+            MethodHandle mmoGet = handle(get);
+            boolean byUuid = "UUID".equals(sig);
+            MethodHandle mmoGetParty = handle(playerDataCls.getMethod("getParty"));
 
             Class<?> partyCls;
             try {
@@ -170,7 +296,20 @@ public final class PartyHook {
             } catch (ClassNotFoundException e) {
                 partyCls = Class.forName("net.Indyuce.mmocore.party.Party");
             }
-            mmo_getOnline = partyCls.getMethod("getOnlineMembers");
+            MethodHandle mmoGetOnline = handle(partyCls.getMethod("getOnlineMembers"));
+
+            // 멤버 객체의 getPlayer() 는 클래스별로 한 번만 해석
+            ClassValue<MethodHandle> memberPlayer = new ClassValue<>() {
+                @Override
+                protected MethodHandle computeValue(Class<?> type) {
+                    try {
+                        return handle(type.getMethod("getPlayer"));
+                    } catch (Throwable t) {
+                        return null;
+                    }
+                }
+            };
+            AtomicBoolean warned = new AtomicBoolean();
 
             Bukkit.getLogger().info("[QuestEngine] MMOCore hook successful (" + sig + " signature)");
 
@@ -178,30 +317,26 @@ public final class PartyHook {
                 @Override
                 public boolean available() { return true; }
 
-                @SuppressWarnings("unchecked")
                 @Override
                 public Collection<Player> members(Player p) {
                     try {
-                        Object data = null;
-                        // 다중 시그니처 안전 호출
-                        try { data = mmo_get.invoke(null, p); } catch (Throwable ignored) {}
-                        if (data == null) try { data = mmo_get.invoke(null, p.getUniqueId()); } catch (Throwable ignored) {}
+                        Object data = (Object) mmoGet.invokeExact(byUuid ? (Object) p.getUniqueId() : (Object) p);
                         if (data == null) return Collections.singletonList(p);
 
-                        Object party = mmo_getParty.invoke(data);
+                        Object party = (Object) mmoGetParty.invokeExact(data);
                         if (party == null) return Collections.singletonList(p);
 
-                        Collection<?> members = (Collection<?>) mmo_getOnline.invoke(party);
+                        Collection<?> members = (Collection<?>) (Object) mmoGetOnline.invokeExact(party);
                         List<Player> list = new ArrayList<>(members.size());
                         for (Object o : members) {
-                            try {
-                                Method getPlayer = o.getClass().getMethod("getPlayer");
-                                Player pl = (Player) getPlayer.invoke(o);
-                                if (pl != null && pl.isOnline()) list.add(pl);
-                            } catch (Throwable ignored) {}
+                            if (o == null) continue;
+                            MethodHandle getPlayer = memberPlayer.get(o.getClass());
+                            if (getPlayer == null) continue;
+                            if ((Object) getPlayer.invokeExact(o) instanceof Player pl && pl.isOnline()) list.add(pl);
                         }
                         return list.isEmpty() ? Collections.singletonList(p) : list;
-                    } catch (Throwable ignored) {
+                    } catch (Throwable ex) {
+                        warnOnce(warned, "MMOCore", ex);
                         return Collections.singletonList(p);
                     }
                 }
@@ -219,35 +354,35 @@ public final class PartyHook {
     private static PartyAdapter parties() {
         try {
             Class<?> api = Class.forName("com.alessiodp.parties.api.Parties");
-            parties_getApi = api.getMethod("getApi");
-            parties_api = parties_getApi.invoke(null);
+            Object partiesApi = api.getMethod("getApi").invoke(null);
 
             Class<?> apiCls = Class.forName("com.alessiodp.parties.api.interfaces.PartiesAPI");
-            parties_getPlayer = apiCls.getMethod("getPartyPlayer", UUID.class);
             Class<?> partyPlayerCls = Class.forName("com.alessiodp.parties.api.interfaces.PartyPlayer");
-            parties_getPid = partyPlayerCls.getMethod("getPartyId");
-            parties_getOnline = apiCls.getMethod("getOnlineMembers", UUID.class);
+            MethodHandle getPartyPlayer = handle(apiCls.getMethod("getPartyPlayer", UUID.class)).bindTo(partiesApi);
+            MethodHandle getPartyId = handle(partyPlayerCls.getMethod("getPartyId"));
+            MethodHandle getOnlineMembers = handle(apiCls.getMethod("getOnlineMembers", UUID.class)).bindTo(partiesApi);
+            AtomicBoolean warned = new AtomicBoolean();
 
             return new PartyAdapter() {
                 @Override
                 public boolean available() { return true; }
 
-                @SuppressWarnings("unchecked")
                 @Override
                 public Collection<Player> members(Player p) {
                     try {
-                        Object pp = parties_getPlayer.invoke(parties_api, p.getUniqueId());
+                        Object pp = (Object) getPartyPlayer.invokeExact((Object) p.getUniqueId());
                         if (pp == null) return Collections.singletonList(p);
-                        UUID pid = (UUID) parties_getPid.invoke(pp);
-                        if (pid == null) return Collections.singletonList(p);
-                        Collection<UUID> uuids = (Collection<UUID>) parties_getOnline.invoke(parties_api, pid);
-                        List<Player> list = new ArrayList<>(uuids.size());
-                        for (UUID id : uuids) {
-                            Player m = Bukkit.getPlayer(id);
+                        if (!((Object) getPartyId.invokeExact(pp) instanceof UUID pid)) return Collections.singletonList(p);
+
+                        Collection<?> online = (Collection<?>) (Object) getOnlineMembers.invokeExact((Object) pid);
+                        List<Player> list = new ArrayList<>(online.size());
+                        for (Object o : online) {
+                            Player m = o instanceof UUID id ? Bukkit.getPlayer(id) : null;
                             if (m != null && m.isOnline()) list.add(m);
                         }
                         return list.isEmpty() ? Collections.singletonList(p) : list;
                     } catch (Throwable t) {
+                        warnOnce(warned, "Parties", t);
                         return Collections.singletonList(p);
                     }
                 }
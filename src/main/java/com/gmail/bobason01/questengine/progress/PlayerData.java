@@ -1,43 +1,60 @@
 package com.gmail.bobason01.questengine.progress;
 
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
+
 import java.io.Serializable;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * PlayerData
  * 퀘스트 진행 상태를 보관하는 데이터 클래스
- * 모든 퀘스트 아이디는 소문자로 정규화한다
+ * 퀘스트는 QuestOrdinals 의 int ordinal 로 저장한다 (문자열 id 는 API 경계에서만 변환)
+ * - active / completed: ordinal 비트셋
+ * - value / points / epoch: ordinal 을 키로 하는 open addressing 테이블의 원시 배열
+ * - 활성 순서: ordinal int 배열
+ * 주기 초기화 퀘스트는 상태마다 기록 시점의 epoch 를 저장하고,
+ * ResetEpochs 가 바뀐 뒤 첫 접근에서 지난 주기의 상태를 정리한다
+ * 마지막 저장 이후 바뀐 퀘스트는 changed 비트셋에 모아 두고 drainChanges 로 넘긴다 (부분 저장)
  */
 public final class PlayerData implements Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+
+    private static final int[] NO_INTS = new int[0];
+    private static final long[] NO_LONGS = new long[0];
 
     private final UUID id;
     private String name;
 
-    // questId -> Node
-    private final Map<String, Node> map = new ConcurrentHashMap<>(32, 0.75f, 2);
+    // 슬롯 테이블 (선형 탐사): keys 는 ordinal + 1, 0 은 빈 칸
+    private int[] keys = NO_INTS;
+    private int[] values = NO_INTS;
+    private int[] points = NO_INTS;
+    private long[] epochs = NO_LONGS;
+    private int size;
+
+    // ordinal 비트셋
+    private long[] active = NO_LONGS;
+    private long[] completed = NO_LONGS;
 
     // 활성 퀘스트 순서 정보
-    private final LinkedHashSet<String> activeOrder = new LinkedHashSet<>(8);
+    private int[] order = NO_INTS;
+    private int orderSize;
 
-    private static final class Node implements Serializable {
-        boolean active;
-        boolean completed;
-        int value;
-        int points;
-    }
+    // 마지막 저장 이후 바뀐 ordinal (저장소에 다시 써야 하는 것)
+    private long[] changed = NO_LONGS;
+
+    // 마지막으로 주기 정리를 마친 ResetEpochs generation (0 = 아직 안 함)
+    private transient volatile int checkedGeneration;
+
+    // 저장소 읽기에 실패해 대신 만든 빈 데이터 (저장 / 저널 기록 금지 - 실제 기록을 덮어쓰지 않도록)
+    private transient volatile boolean loadFailed;
 
     public PlayerData(UUID id, String name) {
         this.id = id;
         this.name = name == null ? "unknown" : name;
     }
 
-    private static String norm(String id) {
-        return id == null ? null : id.toLowerCase(Locale.ROOT);
-    }
-
     public UUID getId() {
         return id;
     }
@@ -46,111 +63,412 @@ public final class PlayerData implements Serializable {
         return name;
     }
 
+    public boolean isLoadFailed() {
+        return loadFailed;
+    }
+
+    public void markLoadFailed() {
+        this.loadFailed = true;
+    }
+
     public void rename(String newName) {
         if (newName != null && !newName.isEmpty()) {
             this.name = newName;
         }
     }
 
+    // ------------------------------------------------------------
+    // 슬롯 테이블
+    // ------------------------------------------------------------
+
+    private static int mix(int x) {
+        x *= 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    /** ordinal 의 슬롯 (없으면 -1) */
+    private int slot(int ord) {
+        if (size == 0 || ord < 0) return -1;
+        int mask = keys.length - 1;
+        int k = ord + 1;
+        for (int i = mix(ord) & mask; ; i = (i + 1) & mask) {
+            int c = keys[i];
+            if (c == k) return i;
+            if (c == 0) return -1;
+        }
+    }
+
+    private int slotOrInsert(int ord) {
+        int s = slot(ord);
+        if (s >= 0) return s;
+        if ((size + 1) * 4 > keys.length * 3) rehash(Math.max(8, keys.length * 2));
+        int mask = keys.length - 1;
+        int i = mix(ord) & mask;
+        while (keys[i] != 0) i = (i + 1) & mask;
+        keys[i] = ord + 1;
+        size++;
+        return i;
+    }
+
+    private void rehash(int capacity) {
+        int[] ok = keys, ov = values, op = points;
+        long[] oe = epochs;
+        keys = new int[capacity];
+        values = new int[capacity];
+        points = new int[capacity];
+        epochs = new long[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < ok.length; j++) {
+            if (ok[j] == 0) continue;
+            int i = mix(ok[j] - 1) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = ok[j];
+            values[i] = ov[j];
+            points[i] = op[j];
+            epochs[i] = oe[j];
+        }
+    }
+
+    private static boolean bit(long[] bits, int i) {
+        int w = i >>> 6;
+        return i >= 0 && w < bits.length && (bits[w] & (1L << i)) != 0;
+    }
+
+    private static long[] setBit(long[] bits, int i) {
+        int w = i >>> 6;
+        if (w >= bits.length) bits = Arrays.copyOf(bits, Math.max(w + 1, bits.length * 2));
+        bits[w] |= 1L << i;
+        return bits;
+    }
+
+    private static void clearBit(long[] bits, int i) {
+        int w = i >>> 6;
+        if (w < bits.length) bits[w] &= ~(1L << i);
+    }
+
+    private void orderAdd(int ord) {
+        for (int i = 0; i < orderSize; i++) if (order[i] == ord) return;
+        if (orderSize == order.length) order = Arrays.copyOf(order, Math.max(4, orderSize * 2));
+        order[orderSize++] = ord;
+    }
+
+    private void orderRemove(int ord) {
+        for (int i = 0; i < orderSize; i++) {
+            if (order[i] != ord) continue;
+            System.arraycopy(order, i + 1, order, i, orderSize - i - 1);
+            orderSize--;
+            return;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // 주기 초기화 (지연 정리)
+    // ------------------------------------------------------------
+
+    /** ResetEpochs 가 바뀌었으면 지난 주기에 기록된 상태를 제거 (호출 측이 this 잠금 보유) */
+    private void sweep() {
+        int gen = ResetEpochs.generation();
+        if (checkedGeneration == gen) return;
+        boolean removed = false;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == 0) continue;
+            int ord = keys[i] - 1;
+            if (ResetEpochs.isStale(ord, epochs[i])) {
+                keys[i] = 0;
+                size--;
+                clearBit(active, ord);
+                clearBit(completed, ord);
+                orderRemove(ord);
+                changed = setBit(changed, ord);
+                removed = true;
+            } else if (epochs[i] == 0L) {
+                // epoch 없이 기록된 상태 (이전 데이터 / 새로 주기 초기화가 붙은 퀘스트): 현재 주기로 편입
+                epochs[i] = ResetEpochs.current(ord);
+            } else if (ResetEpochs.isLegacy(epochs[i])) {
+                // 이전 포맷(날짜 번호)으로 기록된 현재 주기 상태: 현재 포맷으로 바꿔 저장
+                epochs[i] = ResetEpochs.current(ord);
+                changed = setBit(changed, ord);
+            }
+        }
+        // 빈 칸이 생기면 탐사 체인이 끊기므로 재배치
+        if (removed) rehash(keys.length);
+        checkedGeneration = gen;
+    }
+
+    private void stamp(int slot, int ord) {
+        epochs[slot] = ResetEpochs.current(ord);
+    }
+
+    /**
+     * 저장소에서 읽은 상태 복원
+     * epoch 0 은 epoch 을 저장하지 않던 이전 데이터로 보고 다음 정리 때 현재 주기로 편입
+     */
+    public void restore(String questId, boolean active, boolean completed, int value, int points, long epoch) {
+        restore(QuestOrdinals.register(questId), active, completed, value, points, epoch);
+    }
+
+    public synchronized void restore(int ord, boolean active, boolean completed, int value, int points, long epoch) {
+        if (ord < 0) return;
+        // 삭제 기록인데 없는 항목이면 슬롯을 만들 필요 없음
+        if (!active && !completed && slot(ord) < 0) return;
+        int s = slotOrInsert(ord);
+        this.values[s] = Math.max(0, value);
+        this.points[s] = completed ? points : 0;
+        this.epochs[s] = epoch;
+        // 같은 퀘스트가 다시 나오면 (부분 저장 기록) 나중 것이 덮어씀
+        if (active) {
+            this.active = setBit(this.active, ord);
+            orderAdd(ord);
+        } else {
+            clearBit(this.active, ord);
+            orderRemove(ord);
+        }
+        if (completed) this.completed = setBit(this.completed, ord);
+        else clearBit(this.completed, ord);
+        checkedGeneration = 0;
+    }
+
+    /** 저장 대상 상태 하나 (active 또는 completed 인 퀘스트) */
+    public record Entry(int ordinal, boolean active, boolean completed, int value, int points, long epoch) {
+        public String questId() {
+            return QuestOrdinals.id(ordinal);
+        }
+
+        /** 부분 저장에서 삭제를 뜻하는 항목 */
+        public boolean removed() {
+            return !active && !completed;
+        }
+    }
+
+    /** 저장할 상태의 일관된 사본 (디스크 / DB 쓰기는 이 사본으로 잠금 밖에서 수행) */
+    public synchronized List<Entry> entries() {
+        sweep();
+        List<Entry> out = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == 0) continue;
+            int ord = keys[i] - 1;
+            boolean a = bit(active, ord), c = bit(completed, ord);
+            if (!a && !c) continue;
+            out.add(new Entry(ord, a, c, values[i], c ? points[i] : 0, epochs[i]));
+        }
+        return out;
+    }
+
+    public synchronized boolean hasChanges() {
+        for (long w : changed) if (w != 0L) return true;
+        return false;
+    }
+
+    /**
+     * 마지막 저장 이후 바뀐 퀘스트를 꺼내고 표시를 지움
+     * active / completed 둘 다 false 인 항목은 저장소에서 지울 대상 (Entry.removed)
+     */
+    public synchronized List<Entry> drainChanges() {
+        sweep();
+        List<Entry> out = null;
+        for (int w = 0; w < changed.length; w++) {
+            long word = changed[w];
+            if (word == 0L) continue;
+            changed[w] = 0L;
+            while (word != 0L) {
+                int ord = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (out == null) out = new ArrayList<>();
+                int s = slot(ord);
+                boolean a = bit(active, ord), c = bit(completed, ord);
+                if (s < 0 || (!a && !c)) {
+                    out.add(new Entry(ord, false, false, 0, 0, 0L));
+                } else {
+                    out.add(new Entry(ord, a, c, values[s], c ? points[s] : 0, epochs[s]));
+                }
+            }
+        }
+        return out == null ? Collections.emptyList() : out;
+    }
+
+    /** 저장 실패: 꺼냈던 변경을 다시 표시 (그 사이 값이 또 바뀌었어도 다음 drain 이 최신 값을 씀) */
+    public synchronized void requeueChanges(List<Entry> entries) {
+        for (Entry e : entries) changed = setBit(changed, e.ordinal());
+    }
+
+    /** 퀘스트 하나의 현재 상태 (없으면 removed() 항목) */
+    public synchronized Entry entry(int ord) {
+        int s = slot(ord);
+        boolean a = bit(active, ord), c = bit(completed, ord);
+        if (s < 0 || (!a && !c)) return new Entry(ord, false, false, 0, 0, 0L);
+        return new Entry(ord, a, c, values[s], c ? points[s] : 0, epochs[s]);
+    }
+
+    /** 기록된 상태를 그대로 덮어쓰고 저장 대상으로 표시 (저널 재생) */
+    public synchronized void apply(Entry e) {
+        restore(e.ordinal(), e.active(), e.completed(), e.value(), e.points(), e.epoch());
+        if (e.ordinal() >= 0) changed = setBit(changed, e.ordinal());
+    }
+
+    /** 전체 상태를 바뀐 것으로 표시 (저장소를 새로 채울 때) */
+    public synchronized void markAllChanged() {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) changed = setBit(changed, keys[i] - 1);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ordinal 기반 (핫패스)
+    // ------------------------------------------------------------
+
+    /** 상태가 기록된 주기 번호 (없으면 0) */
+    public synchronized long epochOf(int ord) {
+        sweep();
+        int s = slot(ord);
+        return s < 0 ? 0L : epochs[s];
+    }
+
+    public synchronized boolean isActive(int ord) {
+        sweep();
+        return bit(active, ord);
+    }
+
+    public synchronized boolean isCompleted(int ord) {
+        sweep();
+        return bit(completed, ord);
+    }
+
+    public synchronized void start(int ord) {
+        if (ord < 0) return;
+        sweep();
+        stamp(slotOrInsert(ord), ord);
+        active = setBit(active, ord);
+        orderAdd(ord);
+        changed = setBit(changed, ord);
+    }
+
+    public synchronized void cancel(int ord) {
+        sweep();
+        int s = slot(ord);
+        if (s < 0) return;
+        clearBit(active, ord);
+        values[s] = 0;
+        orderRemove(ord);
+        changed = setBit(changed, ord);
+    }
+
+    public synchronized void complete(int ord, int pts) {
+        if (ord < 0) return;
+        sweep();
+        int s = slotOrInsert(ord);
+        stamp(s, ord);
+        clearBit(active, ord);
+        completed = setBit(completed, ord);
+        points[s] = Math.max(points[s], pts);
+        orderRemove(ord);
+        changed = setBit(changed, ord);
+    }
+
+    public synchronized int add(int ord, int amount) {
+        if (ord < 0) return 0;
+        sweep();
+        if (amount == 0) {
+            int s = slot(ord);
+            return s < 0 ? 0 : values[s];
+        }
+        int s = slotOrInsert(ord);
+        stamp(s, ord);
+        int v = values[s] + amount;
+        if (v < 0) v = 0;
+        values[s] = v;
+        changed = setBit(changed, ord);
+        return v;
+    }
+
+    public synchronized int valueOf(int ord) {
+        sweep();
+        int s = slot(ord);
+        return s < 0 ? 0 : values[s];
+    }
+
+    public synchronized int pointsOf(int ord) {
+        sweep();
+        int s = slot(ord);
+        return s < 0 ? 0 : points[s];
+    }
+
+    // ------------------------------------------------------------
+    // 문자열 id (API 경계)
+    // ------------------------------------------------------------
+
+    public long epochOf(String questId) {
+        return epochOf(QuestOrdinals.lookup(questId));
+    }
+
     public boolean isActive(String questId) {
-        questId = norm(questId);
-        if (questId == null) return false;
-        Node n = map.get(questId);
-        return n != null && n.active;
+        return isActive(QuestOrdinals.lookup(questId));
     }
 
     public boolean isCompleted(String questId) {
-        questId = norm(questId);
-        if (questId == null) return false;
-        Node n = map.get(questId);
-        return n != null && n.completed;
+        return isCompleted(QuestOrdinals.lookup(questId));
     }
 
     public void start(String questId) {
-        questId = norm(questId);
-        if (questId == null) return;
-        Node n = map.computeIfAbsent(questId, k -> new Node());
-        n.active = true;
-        activeOrder.add(questId);
+        start(QuestOrdinals.register(questId));
     }
 
     public void cancel(String questId) {
-        questId = norm(questId);
-        if (questId == null) return;
-        Node n = map.get(questId);
-        if (n == null) return;
-        n.active = false;
-        n.value = 0;
-        activeOrder.remove(questId);
+        cancel(QuestOrdinals.lookup(questId));
     }
 
     public void complete(String questId, int points) {
-        questId = norm(questId);
-        if (questId == null) return;
-        Node n = map.computeIfAbsent(questId, k -> new Node());
-        n.active = false;
-        n.completed = true;
-        n.points = Math.max(n.points, points);
-        activeOrder.remove(questId);
+        complete(QuestOrdinals.register(questId), points);
     }
 
     public int add(String questId, int amount) {
-        questId = norm(questId);
-        if (questId == null) return 0;
-        if (amount == 0) {
-            Node exist = map.get(questId);
-            return exist == null ? 0 : exist.value;
-        }
-        Node n = map.computeIfAbsent(questId, k -> new Node());
-        int v = n.value + amount;
-        if (v < 0) v = 0;
-        n.value = v;
-        return v;
+        return add(amount == 0 ? QuestOrdinals.lookup(questId) : QuestOrdinals.register(questId), amount);
     }
 
     public int valueOf(String questId) {
-        questId = norm(questId);
-        if (questId == null) return 0;
-        Node n = map.get(questId);
-        return n == null ? 0 : n.value;
+        return valueOf(QuestOrdinals.lookup(questId));
     }
 
     public int pointsOf(String questId) {
-        questId = norm(questId);
-        if (questId == null) return 0;
-        Node n = map.get(questId);
-        return n == null ? 0 : n.points;
+        return pointsOf(QuestOrdinals.lookup(questId));
     }
 
-    public List<String> activeIds() {
-        if (activeOrder.isEmpty()) return Collections.emptyList();
-        return new ArrayList<>(activeOrder);
+    public synchronized List<String> activeIds() {
+        sweep();
+        if (orderSize == 0) return Collections.emptyList();
+        List<String> out = new ArrayList<>(orderSize);
+        for (int i = 0; i < orderSize; i++) out.add(QuestOrdinals.id(order[i]));
+        return out;
     }
 
-    public List<String> completedIds() {
-        if (map.isEmpty()) return Collections.emptyList();
-        List<String> out = new ArrayList<>();
-        for (Map.Entry<String, Node> e : map.entrySet()) {
-            if (e.getValue().completed) {
-                out.add(e.getKey());
+    public synchronized List<String> completedIds() {
+        sweep();
+        List<String> out = null;
+        for (int w = 0; w < completed.length; w++) {
+            long word = completed[w];
+            while (word != 0L) {
+                int ord = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (out == null) out = new ArrayList<>();
+                out.add(QuestOrdinals.id(ord));
             }
         }
-        return out;
+        return out == null ? Collections.emptyList() : out;
     }
 
-    public void cancelAll() {
-        for (Node n : map.values()) {
-            n.active = false;
-            n.value = 0;
-        }
-        activeOrder.clear();
+    public synchronized void cancelAll() {
+        sweep();
+        for (int i = 0; i < orderSize; i++) changed = setBit(changed, order[i]);
+        Arrays.fill(values, 0);
+        Arrays.fill(active, 0L);
+        orderSize = 0;
     }
 
-    public int totalPoints() {
+    public synchronized int totalPoints() {
+        sweep();
         int sum = 0;
-        for (Node n : map.values()) {
-            if (n.completed) {
-                sum += n.points;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && bit(completed, keys[i] - 1)) {
+                sum += points[i];
             }
         }
         return sum;
@@ -163,6 +481,6 @@ public final class PlayerData implements Serializable {
     }
 
     public Set<String> getActiveQuests() {
-        return new LinkedHashSet<>(activeOrder);
+        return new LinkedHashSet<>(activeIds());
     }
 }
@@ -1,10 +1,12 @@
 package com.gmail.bobason01.questengine.progress;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
 import com.gmail.bobason01.questengine.storage.*;
 import com.gmail.bobason01.questengine.storage.sql.MySQLStorage;
 import com.gmail.bobason01.questengine.storage.sql.SQLiteStorage;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
@@ -12,7 +14,15 @@ import java.util.stream.Collectors;
 /**
  * ProgressRepository
  * 고성능 비동기 안전 퀘스트 진행 저장소
- * 모든 questId 는 lower-case 로 정규화하여 unknown quest 문제를 방지
+ * 핫패스는 QuestDef.ordinal 을 받는 int 오버로드를 사용하고,
+ * 문자열 questId 는 API 경계에서 QuestOrdinals 로 한 번만 변환
+ * 캐시는 두 단계:
+ * - cache: 접속 중인 플레이어 (join 시 로드, quit 후 유예 시간이 지나면 저장 후 내림)
+ * - offline: 최근 오프라인 플레이어 LRU (관리자 명령 / GUI 조회용, 크기 제한)
+ * 저장 대기 중인 데이터는 dirty 가 강한 참조로 붙잡아 캐시에서 내려가도 유실되지 않음
+ * flush 는 모든 dirty 플레이어의 변경을 모아 저장소에 한 번에 넘김 (SQL: 트랜잭션 묶음)
+ * flush 가 주기보다 오래 걸리면 다음 flush 를 그만큼 늦춰 IO 스레드가 밀리지 않게 함
+ * 모든 변경은 먼저 ProgressJournal 에 기록되고, 시작 시 남은 저널을 재생해 flush 전 크래시에도 유실되지 않음
  */
 public final class ProgressRepository {
 
@@ -20,10 +30,28 @@ public final class ProgressRepository {
     private final StorageProvider storage;
 
     private final ConcurrentMap<UUID, PlayerData> cache = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
-    private final BlockingQueue<UUID> saveQueue = new LinkedBlockingQueue<>();
+    private final ConcurrentMap<LockKey, Object> locks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, PlayerData> dirty = new ConcurrentHashMap<>();
     private final Map<UUID, Integer> points = new ConcurrentHashMap<>();
 
+    // 세션
+    private final Set<UUID> sessions = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<UUID, Object> evictions = new ConcurrentHashMap<>(); // uuid -> 예약 토큰
+    private final ConcurrentMap<UUID, Object> provisional = new ConcurrentHashMap<>(); // pre-login 이 직접 연 세션의 토큰
+    private final long quitGraceMillis;
+    private final Map<UUID, PlayerData> offline;
+    private final ConcurrentMap<UUID, CompletableFuture<PlayerData>> loading = new ConcurrentHashMap<>();
+
+    // flush
+    private final long flushIntervalMillis;
+    private volatile FlushStats flushStats = FlushStats.EMPTY;
+    private volatile long lastOverrunWarn;
+    private final Object flushLock = new Object();
+    private final ProgressJournal journal;
+    // 재생하지 못한 저널이 남아 있음 (다음 시작 때 다시 재생하도록 세그먼트를 지우지 않음)
+    private volatile boolean keepJournal;
+    private final ExecutorService loader;
+
     private final ScheduledExecutorService ioExecutor =
             Executors.newSingleThreadScheduledExecutor(r -> {
                 Thread t = new Thread(r, "QuestEngine-IO");
@@ -34,14 +62,34 @@ public final class ProgressRepository {
     public ProgressRepository(QuestEnginePlugin plugin) {
         this.plugin = plugin;
         this.storage = buildProvider(plugin);
+        this.quitGraceMillis = Math.max(0L, plugin.getConfig().getLong("session.quit-grace-seconds", 30L)) * 1000L;
+        int offlineMax = Math.max(0, plugin.getConfig().getInt("session.offline-cache-size", 256));
+        // 접근 순서 LinkedHashMap: 가장 오래 안 쓴 항목부터 밀려남 (dirty 는 따로 보관하므로 그냥 버려도 됨)
+        this.offline = new LinkedHashMap<>(Math.min(offlineMax, 64) + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerData> eldest) {
+                return size() > offlineMax;
+            }
+        };
 
-        ioExecutor.scheduleAtFixedRate(this::flushQueue, 3, 3, TimeUnit.SECONDS);
+        int loadThreads = Math.max(1, plugin.getConfig().getInt("session.load-threads", 2));
+        this.loader = Executors.newFixedThreadPool(loadThreads, r -> {
+            Thread t = new Thread(r, "QuestEngine-Load");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.flushIntervalMillis = Math.max(200L, (long) (plugin.getConfig().getDouble("storage.flush-interval-seconds", 3.0) * 1000L));
+        this.journal = buildJournal(plugin);
+        if (journal != null) replayJournal();
+        scheduleFlush(flushIntervalMillis);
 
         CompletableFuture.runAsync(() -> {
             try {
                 Map<UUID, Integer> all = storage.loadAllPointsApprox();
                 if (all != null && !all.isEmpty()) {
-                    points.putAll(all);
+                    // 저널 재생 / 접속 직후 이미 계산된 값이 우선
+                    all.forEach(points::putIfAbsent);
                     plugin.getLogger().info("[QuestEngine] Loaded " + points.size() + " leaderboard entries.");
                 }
             } catch (Throwable t) {
@@ -60,91 +108,532 @@ public final class ProgressRepository {
         }
     }
 
-    private String norm(String qid) {
-        return qid == null ? null : qid.toLowerCase(Locale.ROOT);
+    private ProgressJournal buildJournal(QuestEnginePlugin plugin) {
+        if (!plugin.getConfig().getBoolean("storage.journal.enabled", true)) return null;
+        ProgressJournal.Sync sync;
+        try {
+            sync = ProgressJournal.Sync.valueOf(plugin.getConfig().getString("storage.journal.fsync", "INTERVAL").trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            sync = ProgressJournal.Sync.INTERVAL;
+        }
+        long interval = plugin.getConfig().getLong("storage.journal.fsync-interval-ms", 1000L);
+        return new ProgressJournal(new File(plugin.getDataFolder(), "journal"), sync, interval, plugin.getLogger());
+    }
+
+    /*
+     * 지난 실행에서 저장소에 반영되지 못한 저널 기록을 재생
+     * 재생 결과는 dirty 에 올려 두므로 로드(fetch)가 저장소보다 먼저 보고, 첫 flush 가 저장소에 반영함
+     * 세그먼트는 그 flush 가 전부 성공한 뒤에 삭제됨
+     * 저장소에서 읽지 못한 플레이어의 기록은 건너뛰고, 세그먼트를 남겨 다음 시작 때 다시 재생
+     */
+    private void replayJournal() {
+        Map<UUID, PlayerData> replayed = new HashMap<>();
+        Set<UUID> failed = new HashSet<>();
+        int[] orphans = new int[1];
+        int n = journal.replay(op -> {
+            UUID id = op.id();
+            if (failed.contains(id)) return;
+            // ordinal 기록이 유실됐거나 알 수 없는 번호: 다른 퀘스트 / 빈 id 로 저장되지 않도록 버림
+            if (op.ordinal() >= 0 && QuestOrdinals.id(op.ordinal()).isEmpty()) {
+                orphans[0]++;
+                return;
+            }
+            if (op.type() == ProgressJournal.RESET_ALL) {
+                storage.reset(id);
+                replayed.put(id, new PlayerData(id, "unknown"));
+                return;
+            }
+            PlayerData d = replayed.get(id);
+            if (d == null) {
+                try {
+                    d = storage.load(id, "unknown");
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("[QuestEngine] Journal replay skipped for " + id + ": " + e.getMessage());
+                    failed.add(id);
+                    return;
+                }
+                if (d == null) d = new PlayerData(id, "unknown");
+                replayed.put(id, d);
+            }
+            if (op.type() == ProgressJournal.CANCEL_ALL) d.cancelAll();
+            else if (op.state() != null) d.apply(op.state());
+        });
+        for (PlayerData d : replayed.values()) {
+            dirty.put(d.getId(), d);
+            points.put(d.getId(), d.totalPoints());
+        }
+        if (n > 0) {
+            plugin.getLogger().info("[QuestEngine] Replayed " + n + " journal records for " + replayed.size() + " players.");
+        }
+        if (orphans[0] > 0) {
+            plugin.getLogger().warning("[QuestEngine] Dropped " + orphans[0] + " journal records with unknown quest ordinals.");
+        }
+        if (!failed.isEmpty()) {
+            keepJournal = true;
+            plugin.getLogger().warning("[QuestEngine] Journal kept until next start: " + failed.size() + " players could not be loaded.");
+        }
     }
 
-    private Object lockFor(UUID id, String qid) {
-        return locks.computeIfAbsent(id.toString() + "|" + norm(qid), k -> new Object());
+    private record LockKey(UUID id, int quest) {}
+
+    private Object lockFor(UUID id, int ord) {
+        return locks.computeIfAbsent(new LockKey(id, ord), k -> new Object());
     }
 
+    // ------------------------------------------------------------
+    // 세션 / 캐시 단계
+    // ------------------------------------------------------------
+
+    /**
+     * 플레이어 데이터 (API 경계용, 메모리에 없으면 로드 완료까지 대기)
+     * 접속 중인 플레이어의 핫패스는 resolve 를 사용 (저장소를 동기로 기다리지 않음)
+     */
     public PlayerData of(UUID id, String name) {
-        PlayerData data = cache.computeIfAbsent(id, k -> storage.load(id, name));
-        if (data == null) {
-            data = new PlayerData(id, name);
-            cache.put(id, data);
+        PlayerData d = cached(id);
+        if (d != null) return d;
+        try {
+            return loadAsync(id, name).join();
+        } catch (CompletionException | CancellationException e) {
+            plugin.getLogger().warning("[QuestEngine] Failed to load progress for " + id + ": " + e.getMessage());
+            // 캐시에 올리지 않는 임시 데이터 - 저장되지 않음
+            PlayerData detached = new PlayerData(id, name);
+            detached.markLoadFailed();
+            return detached;
+        }
+    }
+
+    /**
+     * 핫패스 조회: 접속 중인데 아직 로드되지 않았으면 null ("로딩 중") 을 돌려주고 백그라운드 로드만 걸어둠
+     * 세션이 없는 플레이어(관리자 명령 / API)는 of 와 같음
+     */
+    private PlayerData resolve(UUID id, String name) {
+        PlayerData d = cache.get(id);
+        if (d != null) return d;
+        if (!sessions.contains(id)) return of(id, name);
+        loadAsync(id, name);
+        return null;
+    }
+
+    /** 접속 중인데 진행 정보가 아직 메모리에 없음 */
+    public boolean isLoading(UUID id) {
+        return id != null && sessions.contains(id) && !cache.containsKey(id);
+    }
+
+    /**
+     * 비동기 로드 (같은 플레이어의 동시 요청은 하나로 합침)
+     * 완료 시 세션이 있으면 cache, 없으면 offline LRU 에 올림
+     */
+    public CompletableFuture<PlayerData> loadAsync(UUID id, String name) {
+        PlayerData d = cached(id);
+        if (d != null) return CompletableFuture.completedFuture(d);
+        CompletableFuture<PlayerData> f = loading.get(id);
+        if (f != null) return f;
+        CompletableFuture<PlayerData> created = new CompletableFuture<>();
+        f = loading.putIfAbsent(id, created);
+        if (f != null) return f;
+        try {
+            loader.execute(() -> {
+                try {
+                    created.complete(install(id, fetch(id, name)));
+                } catch (Throwable t) {
+                    created.completeExceptionally(t);
+                } finally {
+                    loading.remove(id, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(id, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /* 저장 대기 중인 최신본 우선, 없으면 저장소 */
+    private PlayerData fetch(UUID id, String name) {
+        PlayerData d = dirty.get(id);
+        if (d == null) d = storage.load(id, name);
+        if (d == null) d = new PlayerData(id, name);
+        if (!"unknown".equals(name)) d.rename(name);
+        return d;
+    }
+
+    /* 로드 결과를 알맞은 단계에 올림 (이미 올라간 것이 있으면 그쪽을 사용) */
+    private PlayerData install(UUID id, PlayerData d) {
+        synchronized (offline) {
+            PlayerData prev = cache.get(id);
+            if (prev != null) return prev;
+            if (sessions.contains(id)) {
+                offline.remove(id);
+                cache.put(id, d);
+                return d;
+            }
+            prev = offline.putIfAbsent(id, d);
+            return prev != null ? prev : d;
         }
-        return data;
     }
 
-    private void enqueueSave(UUID id) {
-        if (id != null) saveQueue.offer(id);
+    /* 메모리에 있는 데이터만 (로드하지 않음) */
+    private PlayerData cached(UUID id) {
+        PlayerData d = cache.get(id);
+        if (d != null) return d;
+        synchronized (offline) {
+            return offline.get(id);
+        }
     }
 
-    private void flushQueue() {
-        Set<UUID> set = new HashSet<>();
-        saveQueue.drainTo(set);
-        for (UUID id : set) {
-            try {
-                saveNow(id);
-            } catch (Throwable ignored) {}
+    /* 세션 열기 (오프라인 단계에 있으면 바로 승격) */
+    private void open(UUID id, String name) {
+        PlayerData d;
+        synchronized (offline) {
+            evictions.remove(id);
+            provisional.remove(id);
+            sessions.add(id);
+            d = offline.remove(id);
+            if (d != null) cache.putIfAbsent(id, d);
+        }
+        if (d != null) {
+            d.rename(name);
+        } else {
+            loadAsync(id, name);
+        }
+    }
+
+    /**
+     * AsyncPlayerPreLoginEvent (비동기 스레드)
+     * 임시 세션을 열고 로드 완료까지 최대 timeout 대기
+     * 접속(join)이 이어지지 않으면 퇴장과 같은 유예 뒤 정리됨
+     * 같은 uuid 가 이미 접속 중(내림 예약 없음)이면 그 세션은 건드리지 않음 (중복 로그인)
+     * 저장소 오류로 로드가 실패해도 false (빈 데이터를 세션에 올리지 않음, 정책은 호출 측)
+     * @return 시간 안에 로드됐는지
+     */
+    public boolean preLogin(UUID id, String name, long timeoutMillis) {
+        if (id == null) return true;
+        boolean live;
+        synchronized (offline) {
+            live = sessions.contains(id) && !evictions.containsKey(id);
+        }
+        if (!live) {
+            open(id, name);
+            Object token = schedule(id);
+            provisional.put(id, token);
+        }
+        try {
+            loadAsync(id, name).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 로그인이 거부됨: preLogin 이 직접 연 임시 세션만 정리 (이미 접속해 있는 같은 uuid 의 세션은 건드리지 않음)
+     * PlayerLoginEvent 는 메인 스레드이므로 실제 정리는 IO 스레드에서
+     */
+    public void abortLogin(UUID id) {
+        if (id == null) return;
+        Object token = provisional.remove(id);
+        if (token == null) return;
+        try {
+            ioExecutor.execute(() -> evict(id, token));
+        } catch (RejectedExecutionException ignored) {
+            // 종료 중: close() 가 전부 저장함
+        }
+    }
+
+    /** 접속: 예약된 내림 취소, 메모리에 없으면 백그라운드 로드 (보통은 pre-login 에서 이미 로드됨) */
+    public void join(UUID id, String name) {
+        if (id == null) return;
+        open(id, name);
+    }
+
+    /** 퇴장: 유예 시간 뒤 저장하고 오프라인 단계로 내림 (그 전에 재접속하면 취소) */
+    public void quit(UUID id) {
+        if (id == null) return;
+        provisional.remove(id);
+        schedule(id);
+    }
+
+    /* 유예 뒤 내림 예약, 예약 토큰 반환 */
+    private Object schedule(UUID id) {
+        Object token = new Object();
+        evictions.put(id, token);
+        try {
+            ioExecutor.schedule(() -> evict(id, token), quitGraceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // 종료 중: close() 가 전부 저장함
+        }
+        return token;
+    }
+
+    private void evict(UUID id, Object token) {
+        synchronized (offline) {
+            // 그 사이 재접속(join) 했거나 더 나중의 quit 이 예약됐으면 이번 예약은 무효
+            if (!evictions.remove(id, token)) return;
+            provisional.remove(id, token);
+            sessions.remove(id);
+            PlayerData d = cache.remove(id);
+            if (d != null) offline.put(id, d);
+        }
+        saveNow(id);
+        locks.keySet().removeIf(k -> k.id().equals(id));
+    }
+
+    private void enqueueSave(PlayerData d) {
+        if (d != null) dirty.put(d.getId(), d);
+    }
+
+    /*
+     * 변경 기록: dirty 등록을 저널보다 먼저 해야 함
+     * (저널 세그먼트가 flush 로 지워질 때 그 안의 변경은 반드시 그 flush 가 저장한 dirty 에 포함)
+     */
+    private void record(byte op, PlayerData d, int ord, int delta) {
+        if (d == null || d.isLoadFailed()) return;
+        enqueueSave(d);
+        if (journal != null) journal.append(op, d, ord, delta);
+    }
+
+    /*
+     * 고정 주기 대신 매번 다음 flush 를 예약
+     * 주기를 넘긴 flush 뒤에는 걸린 시간만큼 쉬어서 (최대 주기의 10배) 로드 / 퇴장 저장 작업이 끼어들 틈을 줌
+     * 그동안 쌓인 변경은 다음 flush 에서 더 큰 묶음으로 저장됨
+     */
+    private void scheduleFlush(long delayMillis) {
+        try {
+            ioExecutor.schedule(this::flushTick, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // 종료 중
+        }
+    }
+
+    private void flushTick() {
+        long took = 0L;
+        try {
+            took = flushQueue();
+        } catch (Throwable t) {
+            plugin.getLogger().warning("[QuestEngine] Progress flush failed: " + t.getMessage());
         }
+        long next = flushIntervalMillis;
+        if (took > flushIntervalMillis) {
+            next = Math.min(took, flushIntervalMillis * 10L);
+            long now = System.currentTimeMillis();
+            if (now - lastOverrunWarn > 60_000L) {
+                lastOverrunWarn = now;
+                FlushStats st = flushStats;
+                plugin.getLogger().warning("[QuestEngine] Progress flush took " + took + "ms for " + st.lastPlayers()
+                        + " players (" + st.lastRows() + " rows), next flush in " + next + "ms.");
+            }
+        }
+        scheduleFlush(next);
+    }
+
+    /*
+     * dirty 전체를 한 묶음으로 저장, 걸린 시간(ms) 반환
+     * 저장 전에 저널 세그먼트를 넘기고, 전부 성공하면 넘긴 세그먼트까지 삭제
+     */
+    private long flushQueue() {
+        long start = System.nanoTime();
+        synchronized (flushLock) {
+            long sealed = journal == null ? -1L : journal.rotate();
+            List<StorageProvider.Pending> batch = new ArrayList<>();
+            for (UUID id : dirty.keySet()) {
+                StorageProvider.Pending p = drain(id);
+                if (p != null) batch.add(p);
+            }
+            if (store(batch) && sealed >= 0 && !keepJournal) journal.discardUpTo(sealed);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
     }
 
     private void saveNow(UUID id) {
-        PlayerData d = cache.get(id);
-        if (d != null) storage.save(d);
+        synchronized (flushLock) {
+            StorageProvider.Pending p = drain(id);
+            if (p != null) store(List.of(p));
+        }
+    }
+
+    /* dirty 에서 꺼내 마지막 저장 이후 바뀐 퀘스트만 모음 (바뀐 게 없으면 null) */
+    private StorageProvider.Pending drain(UUID id) {
+        PlayerData d = dirty.remove(id);
+        if (d == null) return null;
+        List<PlayerData.Entry> changes = d.drainChanges();
+        if (d.isLoadFailed()) return null;
+        return changes.isEmpty() ? null : new StorageProvider.Pending(d, changes);
+    }
+
+    /* 저장 + 통계 기록, 실패한 플레이어는 변경 표시를 되돌려 다음 주기에 재시도 (전부 성공하면 true) */
+    private boolean store(List<StorageProvider.Pending> batch) {
+        if (batch.isEmpty()) return true;
+        long start = System.nanoTime();
+        List<StorageProvider.Pending> failed;
+        try {
+            failed = storage.saveChangesBatch(batch);
+        } catch (Throwable t) {
+            failed = batch;
+            plugin.getLogger().warning("[QuestEngine] Failed to save progress for " + batch.size() + " players: " + t.getMessage());
+        }
+        for (StorageProvider.Pending p : failed) {
+            p.data().requeueChanges(p.changes());
+            dirty.putIfAbsent(p.data().getId(), p.data());
+        }
+        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int rows = 0;
+        for (StorageProvider.Pending p : batch) rows += p.changes().size();
+        flushStats = flushStats.next(batch.size(), rows, failed.size(), took, took > flushIntervalMillis);
+        return failed.isEmpty();
+    }
+
+    /** flush 통계 (/qe cache 표시용) */
+    public FlushStats flushStats() {
+        return flushStats;
+    }
+
+    public record FlushStats(long flushes, int lastPlayers, int lastRows, int lastFailed,
+                             long lastMillis, long maxMillis, long overruns) {
+        static final FlushStats EMPTY = new FlushStats(0L, 0, 0, 0, 0L, 0L, 0L);
+
+        FlushStats next(int players, int rows, int failed, long millis, boolean overrun) {
+            return new FlushStats(flushes + 1, players, rows, failed, millis,
+                    Math.max(maxMillis, millis), overruns + (overrun ? 1 : 0));
+        }
     }
 
+    // ------------------------------------------------------------
+    // ordinal 기반 (핫패스)
+    // ------------------------------------------------------------
+
+    public boolean isActive(UUID id, String name, int ord) {
+        PlayerData d = resolve(id, name);
+        return d != null && d.isActive(ord);
+    }
+
+    public boolean isCompleted(UUID id, String name, int ord) {
+        PlayerData d = resolve(id, name);
+        return d != null && d.isCompleted(ord);
+    }
+
+    public void start(UUID id, String name, int ord) {
+        if (ord < 0) return;
+        PlayerData d = resolve(id, name);
+        if (d == null) return;
+        synchronized (lockFor(id, ord)) {
+            d.start(ord);
+        }
+        record(ProgressJournal.START, d, ord, 0);
+    }
+
+    public void cancel(UUID id, String name, int ord) {
+        if (ord < 0) return;
+        PlayerData d = resolve(id, name);
+        if (d == null) return;
+        synchronized (lockFor(id, ord)) {
+            d.cancel(ord);
+        }
+        record(ProgressJournal.CANCEL, d, ord, 0);
+    }
+
+    public void complete(UUID id, String name, int ord, int pts) {
+        if (ord < 0) return;
+        PlayerData d = resolve(id, name);
+        if (d == null) return;
+        synchronized (lockFor(id, ord)) {
+            d.complete(ord, pts);
+        }
+        record(ProgressJournal.COMPLETE, d, ord, pts);
+        setPoints(id, d.totalPoints());
+    }
+
+    public int addProgress(UUID id, String name, int ord, int amt) {
+        if (ord < 0) return 0;
+        PlayerData d = resolve(id, name);
+        if (d == null) return 0;
+        synchronized (lockFor(id, ord)) {
+            int v = d.add(ord, amt);
+            record(ProgressJournal.ADD, d, ord, amt);
+            setPoints(id, d.totalPoints());
+            return v;
+        }
+    }
+
+    /**
+     * 여러 플레이어에게 같은 증가량을 한 번에 반영 (파티 공유 진행)
+     * @param players uuid -> 이름
+     * @return uuid -> 반영 후 값
+     */
+    public Map<UUID, Integer> addProgressAll(Map<UUID, String> players, int ord, int amt) {
+        Map<UUID, Integer> out = new HashMap<>(players.size() * 2);
+        if (ord < 0) return out;
+        for (Map.Entry<UUID, String> e : players.entrySet()) {
+            UUID id = e.getKey();
+            PlayerData d = resolve(id, e.getValue());
+            if (d == null) continue;
+            synchronized (lockFor(id, ord)) {
+                out.put(id, d.add(ord, amt));
+            }
+            record(ProgressJournal.ADD, d, ord, amt);
+            setPoints(id, d.totalPoints());
+        }
+        return out;
+    }
+
+    public int value(UUID id, String name, int ord) {
+        PlayerData d = resolve(id, name);
+        return d == null ? 0 : d.valueOf(ord);
+    }
+
+    public void reset(UUID id, String name, int ord) {
+        if (ord < 0) return;
+        PlayerData d = resolve(id, name);
+        if (d == null) return;
+        synchronized (lockFor(id, ord)) {
+            d.cancel(ord);
+        }
+        // 저장소 반영은 부분 저장이 IO 스레드에서 처리 (여기서 직접 쓰면 동시에 이어 붙는 기록을 덮어쓸 수 있음)
+        record(ProgressJournal.RESET, d, ord, 0);
+        setPoints(id, d.totalPoints());
+    }
+
+    // ------------------------------------------------------------
+    // 문자열 questId (API 경계)
+    // ------------------------------------------------------------
+
     public boolean isActive(UUID id, String name, String qid) {
-        return of(id, name).isActive(norm(qid));
+        return isActive(id, name, QuestOrdinals.lookup(qid));
     }
 
     public boolean isCompleted(UUID id, String name, String qid) {
-        return of(id, name).isCompleted(norm(qid));
+        return isCompleted(id, name, QuestOrdinals.lookup(qid));
     }
 
     public void start(UUID id, String name, String qid) {
-        qid = norm(qid);
-        synchronized (lockFor(id, qid)) {
-            of(id, name).start(qid);
-        }
-        enqueueSave(id);
+        start(id, name, QuestOrdinals.register(qid));
     }
 
     public void cancel(UUID id, String name, String qid) {
-        qid = norm(qid);
-        synchronized (lockFor(id, qid)) {
-            of(id, name).cancel(qid);
-        }
-        enqueueSave(id);
+        cancel(id, name, QuestOrdinals.register(qid));
     }
 
     public void complete(UUID id, String name, String qid, int pts) {
-        qid = norm(qid);
-        synchronized (lockFor(id, qid)) {
-            of(id, name).complete(qid, pts);
-        }
-        enqueueSave(id);
-        setPoints(id, of(id, name).totalPoints());
+        complete(id, name, QuestOrdinals.register(qid), pts);
     }
 
     public int addProgress(UUID id, String name, String qid, int amt) {
-        qid = norm(qid);
-        synchronized (lockFor(id, qid)) {
-            int v = of(id, name).add(qid, amt);
-            enqueueSave(id);
-            setPoints(id, of(id, name).totalPoints());
-            return v;
-        }
+        return addProgress(id, name, QuestOrdinals.register(qid), amt);
+    }
+
+    public Map<UUID, Integer> addProgressAll(Map<UUID, String> players, String qid, int amt) {
+        return addProgressAll(players, QuestOrdinals.register(qid), amt);
     }
 
     public int value(UUID id, String name, String qid) {
-        return of(id, name).valueOf(norm(qid));
+        return value(id, name, QuestOrdinals.lookup(qid));
     }
 
     public List<String> activeIds(UUID id, String name) {
-        return of(id, name).activeIds();
+        PlayerData d = resolve(id, name);
+        return d == null ? Collections.emptyList() : d.activeIds();
     }
 
     public List<String> activeOf(UUID uid, String name) {
@@ -152,57 +641,76 @@ public final class ProgressRepository {
     }
 
     public List<String> completedIds(UUID id, String name) {
-        return of(id, name).completedIds();
+        PlayerData d = resolve(id, name);
+        return d == null ? Collections.emptyList() : d.completedIds();
     }
 
     public void cancelAll(UUID id, String name) {
-        PlayerData data = of(id, name);
+        PlayerData data = resolve(id, name);
+        if (data == null) return;
         synchronized (data) {
             data.cancelAll();
         }
-        enqueueSave(id);
+        record(ProgressJournal.CANCEL_ALL, data, -1, 0);
         setPoints(id, data.totalPoints());
     }
 
     public void reset(UUID id) {
         cache.remove(id);
+        synchronized (offline) {
+            offline.remove(id);
+        }
+        dirty.remove(id);
+        if (journal != null) journal.appendReset(id);
         storage.reset(id);
         points.remove(id);
     }
 
     public void reset(UUID id, String name, String qid) {
-        qid = norm(qid);
-        synchronized (lockFor(id, qid)) {
-            of(id, name).cancel(qid);
-        }
-        storage.resetQuest(id, qid);
-        enqueueSave(id);
-        setPoints(id, of(id, name).totalPoints());
+        reset(id, name, QuestOrdinals.register(qid));
     }
 
     public void preload(UUID id) {
-        cache.computeIfAbsent(id, k -> storage.load(id, "unknown"));
+        loadAsync(id, "unknown");
     }
 
     public void preloadAll() {
         storage.preloadAll();
     }
 
+    /** 접속 중이면 로드 중일 때 null, 아니면 of 와 같음 */
     public PlayerData get(UUID id) {
-        return cache.computeIfAbsent(id, k -> storage.load(k, "unknown"));
+        return resolve(id, "unknown");
     }
 
+    /** 바로 저장 예약 (주기를 기다리지 않음, 저장 자체는 IO 스레드에서) */
     public void save(PlayerData d) {
         if (d == null) return;
-        storage.save(d);
-        cache.put(d.getId(), d);
+        enqueueSave(d);
+        UUID id = d.getId();
+        try {
+            ioExecutor.execute(() -> saveNow(id));
+        } catch (RejectedExecutionException ignored) {
+            // 종료 중: close() 가 전부 저장함
+        }
     }
 
     public void close() {
         flushQueue();
+        loader.shutdownNow();
         ioExecutor.shutdownNow();
+        // IO 스레드가 멈추는 사이 들어온 변경까지
+        flushQueue();
         cache.clear();
+        synchronized (offline) {
+            offline.clear();
+        }
+        sessions.clear();
+        evictions.clear();
+        provisional.clear();
+        loading.clear();
         locks.clear();
+        if (journal != null) journal.close();
         storage.close();
         points.clear();
     }
@@ -214,10 +722,11 @@ public final class ProgressRepository {
 
     public int getPoints(UUID id) {
         if (id == null) return 0;
-        PlayerData data = cache.get(id);
+        PlayerData data = cached(id);
         return data != null ? data.totalPoints() : 0;
     }
 
+
     /* ==================================================================
        조회 헬퍼 메서드 세트
        ================================================================== */
@@ -227,46 +736,57 @@ public final class ProgressRepository {
     }
 
     public int cacheSize() {
-        return cache.size();
+        synchronized (offline) {
+            return cache.size() + offline.size();
+        }
+    }
+
+    public int sessionCount() {
+        return sessions.size();
     }
 
     public Map<UUID, Integer> getAllPoints() {
         Map<UUID, Integer> map = storage.loadAllPointsApprox();
-        for (Map.Entry<UUID, PlayerData> e : cache.entrySet()) {
-            map.put(e.getKey(), e.getValue().totalPoints());
+        List<PlayerData> loaded = new ArrayList<>(dirty.values());
+        synchronized (offline) {
+            loaded.addAll(offline.values());
+        }
+        loaded.addAll(cache.values());
+        for (PlayerData d : loaded) {
+            map.put(d.getId(), d.totalPoints());
         }
         return map;
     }
 
     public int activeCount(UUID id, String name) {
-        PlayerData d = get(id);
+        PlayerData d = resolve(id, name);
         return d == null ? 0 : d.activeIds().size();
     }
 
     public int completedCount(UUID id, String name) {
-        PlayerData d = get(id);
+        PlayerData d = resolve(id, name);
         return d == null ? 0 : d.completedIds().size();
     }
 
     public int totalPoints(UUID id, String name) {
-        PlayerData d = get(id);
+        PlayerData d = resolve(id, name);
         return d == null ? 0 : d.totalPoints();
     }
 
     public String firstActiveId(UUID id, String name) {
-        PlayerData d = get(id);
+        PlayerData d = resolve(id, name);
         if (d == null) return null;
         List<String> list = d.activeIds();
         return list.isEmpty() ? null : list.get(0);
     }
 
     public List<String> activeQuestIds(UUID id, String name) {
-        PlayerData d = get(id);
+        PlayerData d = resolve(id, name);
         return d == null ? Collections.emptyList() : d.activeIds();
     }
 
     public List<String> completedQuestIds(UUID id, String name) {
-        PlayerData d = get(id);
+        PlayerData d = resolve(id, name);
         return d == null ? Collections.emptyList() : new ArrayList<>(d.completedIds());
     }
 
@@ -277,4 +797,49 @@ public final class ProgressRepository {
                 .limit(limit)
                 .collect(Collectors.toList());
     }
+
+    // ------------------------------------------------------------
+    // 비동기 API
+    // 저장소를 읽을 수 있는 조회는 로드 스레드에서 끝나는 future 로 제공
+    // 메모리에 있으면 이미 완료된 future (MainThread.then 과 함께 쓰면 같은 틱에 처리)
+    // ------------------------------------------------------------
+
+    /** 메모리에 있는지 (조회해도 저장소를 건드리지 않음) */
+    public boolean isCached(UUID id) {
+        return id != null && cached(id) != null;
+    }
+
+    public CompletableFuture<PlayerData> ofAsync(UUID id, String name) {
+        return loadAsync(id, name);
+    }
+
+    public CompletableFuture<List<String>> activeIdsAsync(UUID id, String name) {
+        return loadAsync(id, name).thenApply(PlayerData::activeIds);
+    }
+
+    public CompletableFuture<List<String>> completedIdsAsync(UUID id, String name) {
+        return loadAsync(id, name).thenApply(PlayerData::completedIds);
+    }
+
+    public CompletableFuture<Integer> valueAsync(UUID id, String name, int ord) {
+        return loadAsync(id, name).thenApply(d -> d.valueOf(ord));
+    }
+
+    public CompletableFuture<Integer> pointsAsync(UUID id, String name) {
+        return loadAsync(id, name).thenApply(PlayerData::totalPoints);
+    }
+
+    public CompletableFuture<Map<UUID, Integer>> allPointsAsync() {
+        return CompletableFuture.supplyAsync(this::getAllPoints, loader);
+    }
+
+    public CompletableFuture<List<Map.Entry<UUID, Integer>>> topAsync(int limit) {
+        return CompletableFuture.supplyAsync(() -> top(limit), loader);
+    }
+
+    /** 퀘스트 하나 초기화 (로드 후 반영, 저장소 삭제는 IO 스레드) */
+    public CompletableFuture<Void> resetAsync(UUID id, String name, String qid) {
+        int ord = QuestOrdinals.register(qid);
+        return loadAsync(id, name).thenAcceptAsync(d -> reset(id, name, ord), ioExecutor);
+    }
 }
@@ -0,0 +1,93 @@
+package com.gmail.bobason01.questengine.progress;
+
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * ResetEpochs
+ * - 주기 초기화 퀘스트의 현재 주기 번호(epoch) 테이블 (quest ordinal -> epoch)
+ * - 초기화 시각에는 테이블만 교체하고 generation 을 올림 (플레이어 수와 무관한 O(1))
+ * - PlayerData 는 generation 이 바뀐 뒤 첫 접근 시 지난 주기의 상태를 지연 정리
+ * - 오프라인 플레이어도 다음 로드 시 저장된 epoch 로 같은 판정을 받음
+ * - epoch 는 직전 경계의 epoch 분, 이전 포맷(서버 시간대 기준 날짜 번호 + 1, DAILY 전용)도 같은 주기면 유지
+ */
+public final class ResetEpochs {
+
+    private static final long[] NONE = new long[0];
+
+    // 이전 포맷 epoch 상한 (날짜 번호는 현재 2만대, epoch 분은 1971년 이후 이 값을 넘음)
+    private static final long LEGACY_MAX = 1_000_000L;
+
+    private static volatile long[] table = NONE;
+    // 0 은 PlayerData 의 "아직 확인 안 함" 값
+    private static volatile int generation = 1;
+
+    private ResetEpochs() {}
+
+    /** 현재 주기 번호 (주기 초기화 대상이 아니면 0) */
+    public static long current(int ordinal) {
+        long[] t = table;
+        return ordinal >= 0 && ordinal < t.length ? t[ordinal] : 0L;
+    }
+
+    public static long current(String questId) {
+        return current(QuestOrdinals.lookup(questId));
+    }
+
+    /** epoch 에 기록된 상태가 지난 주기 것인지 (epoch 0 = 알 수 없음, 지난 것으로 보지 않음) */
+    public static boolean isStale(int ordinal, long epoch) {
+        if (epoch == 0L) return false;
+        long cur = current(ordinal);
+        if (cur == 0L) return false;
+        return isLegacy(epoch) ? epoch != legacyOf(cur) : cur != epoch;
+    }
+
+    /** 이전 포맷(날짜 번호)으로 기록된 epoch 인지 (PlayerData 가 현재 포맷으로 한 번 변환) */
+    public static boolean isLegacy(long epoch) {
+        return epoch > 0L && epoch < LEGACY_MAX;
+    }
+
+    /* 경계 epoch 분 -> 같은 주기를 이전 포맷으로 나타낸 값 (경계의 서버 시간대 날짜 번호 + 1) */
+    private static long legacyOf(long epochMinute) {
+        return LocalDate.ofInstant(Instant.ofEpochSecond(epochMinute * 60L), ZoneId.systemDefault()).toEpochDay() + 1L;
+    }
+
+    public static boolean isStale(String questId, long epoch) {
+        return epoch != 0L && isStale(QuestOrdinals.lookup(questId), epoch);
+    }
+
+    public static int generation() {
+        return generation;
+    }
+
+    /**
+     * 새 테이블 게시 (키는 questId)
+     * 값이 하나라도 바뀌었을 때만 generation 증가
+     */
+    public static synchronized boolean publish(Map<String, Long> next) {
+        long[] t = new long[QuestOrdinals.size()];
+        for (Map.Entry<String, Long> e : next.entrySet()) {
+            int ord = QuestOrdinals.register(e.getKey());
+            if (ord < 0) continue;
+            if (ord >= t.length) t = Arrays.copyOf(t, ord + 1);
+            t[ord] = e.getValue();
+        }
+        if (Arrays.equals(trim(t), trim(table))) return false;
+        table = t;
+        int g = generation + 1;
+        generation = g == 0 ? 1 : g;
+        return true;
+    }
+
+    /* 끝의 0 제거 (크기만 다른 테이블을 같게 취급) */
+    private static long[] trim(long[] t) {
+        int n = t.length;
+        while (n > 0 && t[n - 1] == 0L) n--;
+        return n == t.length ? t : Arrays.copyOf(t, n);
+    }
+}
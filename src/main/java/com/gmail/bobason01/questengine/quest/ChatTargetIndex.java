@@ -0,0 +1,193 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.util.*;
+
+/**
+ * ChatTargetIndex
+ * - PLAYER_CHAT 퀘스트 targets 전체를 하나의 Aho-Corasick 오토마톤으로 컴파일
+ * - 메시지를 한 번만 훑어서 부분 문자열로 포함된 모든 타깃 -> 퀘스트를 찾음
+ * - 대소문자 무시 (문자 단위 Character.toLowerCase, 메시지 문자열 복사 없음)
+ * - targets 가 없는 퀘스트는 항상 후보에 포함
+ * - 불변 객체, QuestRepository 가 리로드 시 새로 만들어 통째로 교체
+ */
+public final class ChatTargetIndex {
+
+    public static final ChatTargetIndex EMPTY = new ChatTargetIndex(new QuestDef[0], new int[0],
+            new char[][]{new char[0]}, new int[][]{new int[0]}, new int[]{0}, new int[][]{new int[0]});
+
+    private static final int[] NO_OUT = new int[0];
+
+    /* 등록 순서대로의 퀘스트 (결과 순서 유지용) */
+    private final QuestDef[] quests;
+    /* 타깃 없이 항상 매칭되는 퀘스트 인덱스 */
+    private final int[] always;
+
+    /* 노드별 전이 (정렬된 문자 -> 다음 노드) */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    /* 실패 링크 */
+    private final int[] fail;
+    /* 노드별 출력 (실패 링크 경로 출력까지 병합된 퀘스트 인덱스) */
+    private final int[][] out;
+
+    private ChatTargetIndex(QuestDef[] quests, int[] always,
+                            char[][] edgeChars, int[][] edgeTargets, int[] fail, int[][] out) {
+        this.quests = quests;
+        this.always = always;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.out = out;
+    }
+
+    // ------------------------------------------------------------
+    // 빌드
+    // ------------------------------------------------------------
+    public static ChatTargetIndex build(QuestDef[] defs) {
+        if (defs == null || defs.length == 0) return EMPTY;
+
+        List<Map<Character, Integer>> gotoList = new ArrayList<>();
+        List<Set<Integer>> outList = new ArrayList<>();
+        gotoList.add(new HashMap<>());
+        outList.add(new HashSet<>());
+
+        List<Integer> always = new ArrayList<>();
+
+        for (int qi = 0; qi < defs.length; qi++) {
+            QuestDef def = defs[qi];
+            if (!def.hasTarget()) {
+                always.add(qi);
+                continue;
+            }
+            for (String target : def.targets) {
+                if (target == null || target.isEmpty()) continue;
+                int node = 0;
+                for (int i = 0; i < target.length(); i++) {
+                    char c = Character.toLowerCase(target.charAt(i));
+                    Integer next = gotoList.get(node).get(c);
+                    if (next == null) {
+                        next = gotoList.size();
+                        gotoList.add(new HashMap<>());
+                        outList.add(new HashSet<>());
+                        gotoList.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                outList.get(node).add(qi);
+            }
+        }
+
+        int n = gotoList.size();
+        int[] fail = new int[n];
+
+        // BFS 로 실패 링크 계산 + 출력 병합
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : gotoList.get(0).values()) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> e : gotoList.get(node).entrySet()) {
+                char c = e.getKey();
+                int child = e.getValue();
+                int f = fail[node];
+                while (f != 0 && !gotoList.get(f).containsKey(c)) f = fail[f];
+                Integer via = gotoList.get(f).get(c);
+                fail[child] = (via != null && via != child) ? via : 0;
+                outList.get(child).addAll(outList.get(fail[child]));
+                queue.add(child);
+            }
+        }
+
+        char[][] edgeChars = new char[n][];
+        int[][] edgeTargets = new int[n][];
+        int[][] out = new int[n][];
+        for (int i = 0; i < n; i++) {
+            Map<Character, Integer> edges = gotoList.get(i);
+            char[] cs = new char[edges.size()];
+            int k = 0;
+            for (char c : edges.keySet()) cs[k++] = c;
+            Arrays.sort(cs);
+            int[] ts = new int[cs.length];
+            for (int j = 0; j < cs.length; j++) ts[j] = edges.get(cs[j]);
+            edgeChars[i] = cs;
+            edgeTargets[i] = ts;
+
+            Set<Integer> o = outList.get(i);
+            if (o.isEmpty()) {
+                out[i] = NO_OUT;
+            } else {
+                int[] arr = new int[o.size()];
+                int m = 0;
+                for (int q : o) arr[m++] = q;
+                Arrays.sort(arr);
+                out[i] = arr;
+            }
+        }
+
+        int[] alwaysArr = new int[always.size()];
+        for (int i = 0; i < alwaysArr.length; i++) alwaysArr[i] = always.get(i);
+
+        return new ChatTargetIndex(defs.clone(), alwaysArr, edgeChars, edgeTargets, fail, out);
+    }
+
+    // ------------------------------------------------------------
+    // 매칭
+    // ------------------------------------------------------------
+    public boolean isEmpty() {
+        return quests.length == 0;
+    }
+
+    /**
+     * 메시지에 타깃이 포함된 퀘스트 + 타깃 없는 퀘스트
+     * 원래 등록 순서를 유지한 새 배열 반환
+     */
+    public QuestDef[] match(String message) {
+        if (quests.length == 0) return quests;
+        if (message == null || message.isEmpty()) return select(null);
+
+        boolean[] hit = null;
+        int remaining = quests.length - always.length;
+        int node = 0;
+        for (int i = 0, len = message.length(); i < len && remaining > 0; i++) {
+            char c = Character.toLowerCase(message.charAt(i));
+            int next;
+            while ((next = step(node, c)) < 0 && node != 0) node = fail[node];
+            node = next < 0 ? 0 : next;
+
+            int[] o = out[node];
+            if (o.length == 0) continue;
+            if (hit == null) hit = new boolean[quests.length];
+            for (int q : o) {
+                if (!hit[q]) {
+                    hit[q] = true;
+                    remaining--;
+                }
+            }
+        }
+        return select(hit);
+    }
+
+    private int step(int node, char c) {
+        int idx = Arrays.binarySearch(edgeChars[node], c);
+        return idx < 0 ? -1 : edgeTargets[node][idx];
+    }
+
+    private QuestDef[] select(boolean[] hit) {
+        if (hit == null && always.length == 0) return new QuestDef[0];
+        if (hit == null && always.length == quests.length) return quests.clone();
+
+        boolean[] take = hit != null ? hit : new boolean[quests.length];
+        for (int q : always) take[q] = true;
+
+        int count = 0;
+        for (boolean b : take) if (b) count++;
+        QuestDef[] res = new QuestDef[count];
+        int k = 0;
+        for (int i = 0; i < take.length; i++) {
+            if (take[i]) res[k++] = quests[i];
+        }
+        return res;
+    }
+}
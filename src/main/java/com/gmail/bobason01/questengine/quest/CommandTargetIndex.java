@@ -0,0 +1,153 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.util.*;
+
+/**
+ * CommandTargetIndex
+ * - PLAYER_COMMAND 퀘스트 targets 를 토큰 단위 트라이로 컴파일 (대소문자 무시)
+ * - 루트는 명령어 라벨 -> 노드 라우팅 맵, 이후 인자 토큰 순서대로 하위 노드
+ * - "warp home" 타깃은 /warp home, /warp home 2 에 매칭 (/warphome 은 아님)
+ * - 라벨이 라우팅 맵에 없으면 맵 조회 한 번으로 종료
+ * - 메시지를 한 번 걸으면서 지나는 노드의 퀘스트를 모두 후보로 수집
+ * - targets 가 없는 퀘스트는 항상 후보에 포함
+ * - 불변 객체, QuestRepository 가 리로드 시 새로 만들어 통째로 교체
+ */
+public final class CommandTargetIndex {
+
+    public static final CommandTargetIndex EMPTY = new CommandTargetIndex(new QuestDef[0], new int[0], Map.of());
+
+    private static final int[] NO_OUT = new int[0];
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>(4);
+        int[] out = NO_OUT;
+    }
+
+    private final QuestDef[] quests;
+    private final int[] always;
+    /* 라벨 -> 트라이 노드 */
+    private final Map<String, Node> routes;
+
+    private CommandTargetIndex(QuestDef[] quests, int[] always, Map<String, Node> routes) {
+        this.quests = quests;
+        this.always = always;
+        this.routes = routes;
+    }
+
+    // ------------------------------------------------------------
+    // 빌드
+    // ------------------------------------------------------------
+    public static CommandTargetIndex build(QuestDef[] defs) {
+        if (defs == null || defs.length == 0) return EMPTY;
+
+        Map<String, Node> routes = new HashMap<>();
+        List<Integer> always = new ArrayList<>();
+
+        for (int qi = 0; qi < defs.length; qi++) {
+            QuestDef def = defs[qi];
+            if (!def.hasTarget()) {
+                always.add(qi);
+                continue;
+            }
+            for (String target : def.targets) {
+                List<String> tokens = tokenize(target);
+                if (tokens.isEmpty()) continue;
+
+                Node node = routes.computeIfAbsent(tokens.get(0), k -> new Node());
+                for (int i = 1; i < tokens.size(); i++) {
+                    node = node.children.computeIfAbsent(tokens.get(i), k -> new Node());
+                }
+                node.out = append(node.out, qi);
+            }
+        }
+
+        int[] alwaysArr = new int[always.size()];
+        for (int i = 0; i < alwaysArr.length; i++) alwaysArr[i] = always.get(i);
+
+        return new CommandTargetIndex(defs.clone(), alwaysArr, routes);
+    }
+
+    private static int[] append(int[] arr, int v) {
+        for (int x : arr) if (x == v) return arr;
+        int[] next = Arrays.copyOf(arr, arr.length + 1);
+        next[arr.length] = v;
+        return next;
+    }
+
+    /* 공백 기준 토큰화 (앞의 '/' 제거, 소문자) */
+    private static List<String> tokenize(String s) {
+        if (s == null) return List.of();
+        List<String> out = new ArrayList<>(4);
+        int i = 0, len = s.length();
+        while (i < len && (Character.isWhitespace(s.charAt(i)) || (out.isEmpty() && s.charAt(i) == '/'))) i++;
+        while (i < len) {
+            int start = i;
+            while (i < len && !Character.isWhitespace(s.charAt(i))) i++;
+            out.add(s.substring(start, i).toLowerCase(Locale.ROOT));
+            while (i < len && Character.isWhitespace(s.charAt(i))) i++;
+        }
+        return out;
+    }
+
+    // ------------------------------------------------------------
+    // 매칭
+    // ------------------------------------------------------------
+    public boolean isEmpty() {
+        return quests.length == 0;
+    }
+
+    /**
+     * 명령어 메시지(/label args...)에 매칭되는 퀘스트 + 타깃 없는 퀘스트
+     * 원래 등록 순서를 유지한 새 배열 반환
+     */
+    public QuestDef[] match(String message) {
+        if (quests.length == 0) return quests;
+        if (message == null) return select(null);
+
+        int len = message.length();
+        int i = 0;
+        if (i < len && message.charAt(i) == '/') i++;
+        int start = i;
+        while (i < len && !Character.isWhitespace(message.charAt(i))) i++;
+        if (i == start) return select(null);
+
+        // 라우팅: 라벨이 없으면 여기서 끝
+        Node node = routes.get(message.substring(start, i).toLowerCase(Locale.ROOT));
+        if (node == null) return select(null);
+
+        boolean[] hit = new boolean[quests.length];
+        mark(node, hit);
+
+        while (!node.children.isEmpty()) {
+            while (i < len && Character.isWhitespace(message.charAt(i))) i++;
+            if (i >= len) break;
+            start = i;
+            while (i < len && !Character.isWhitespace(message.charAt(i))) i++;
+            node = node.children.get(message.substring(start, i).toLowerCase(Locale.ROOT));
+            if (node == null) break;
+            mark(node, hit);
+        }
+        return select(hit);
+    }
+
+    private static void mark(Node node, boolean[] hit) {
+        for (int q : node.out) hit[q] = true;
+    }
+
+    private QuestDef[] select(boolean[] hit) {
+        if (hit == null && always.length == 0) return new QuestDef[0];
+        if (hit == null && always.length == quests.length) return quests.clone();
+
+        boolean[] take = hit != null ? hit : new boolean[quests.length];
+        for (int q : always) take[q] = true;
+
+        int count = 0;
+        for (boolean b : take) if (b) count++;
+        QuestDef[] res = new QuestDef[count];
+        int k = 0;
+        for (int i = 0; i < take.length; i++) {
+            if (take[i]) res[k++] = quests[i];
+        }
+        return res;
+    }
+}
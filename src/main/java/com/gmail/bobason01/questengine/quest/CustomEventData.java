@@ -8,6 +8,7 @@ import java.util.*;
  * CustomEventData
  * - YAML 로드 시 이벤트 클래스와 변수 캡처 규칙을 정의
  * - 런타임 리플렉션 기반 이벤트 감지용
+ * - 체인은 퀘스트 로드 시 GetterChain 으로 컴파일 / 검증 (이벤트마다 해석하지 않음)
  * - 서버 부팅 시 대량 로드 대비 GC-free 구조
  */
 public final class CustomEventData {
@@ -15,7 +16,7 @@ public final class CustomEventData {
     /** 이벤트 클래스의 FQCN (ex: org.bukkit.event.player.PlayerJoinEvent) */
     public final String eventClass;
 
-    /** 플레이어 객체를 가져올 메서드 경로 (예: getPlayer()) */
+    /** 플레이어 객체를 가져올 메서드 경로 (예: getPlayer(), 비어 있으면 DynamicEventListener 가 알려진 접근자를 차례로 시도) */
     public final String playerGetter;
 
     /** %변수명% → 필드/메서드 체인 (ex: "%block_type%" -> "getBlock().getType().name()") */
@@ -23,6 +24,10 @@ public final class CustomEventData {
 
     private static final Map<String, String> EMPTY_MAP = Collections.emptyMap();
 
+    /* 로드 시 이벤트 클래스 기준으로 컴파일된 접근자 (compile 전에는 비어 있음) */
+    private volatile GetterChain compiledPlayer;
+    private volatile Map<String, GetterChain> compiledCaptures = Collections.emptyMap();
+
     public CustomEventData(String eventClass, String playerGetter, Map<String, String> captures) {
         this.eventClass = eventClass;
         this.playerGetter = playerGetter;
@@ -39,10 +44,11 @@ public final class CustomEventData {
      *   - "%world%;getPlayer().getWorld().getName()"
      */
     public static CustomEventData load(ConfigurationSection sec) {
-        if (sec == null) return new CustomEventData("", "getPlayer()", EMPTY_MAP);
+        if (sec == null) return new CustomEventData("", "", EMPTY_MAP);
 
         String eventClass = sec.getString("event", "").trim();
-        String playerGetter = sec.getString("player_variable", "getPlayer()").trim();
+        // 직접 지정한 경우만 컴파일 / 검증 (기본값을 넣으면 getPlayer() 가 없는 이벤트마다 경고가 남)
+        String playerGetter = sec.getString("player_variable", "").trim();
 
         Map<String, String> map = new LinkedHashMap<>(8);
         List<?> raw = sec.getList("variables_to_capture");
@@ -70,6 +76,50 @@ public final class CustomEventData {
         return new CustomEventData(eventClass, playerGetter, map);
     }
 
+    // ------------------------------------------------------------
+    // 컴파일 (퀘스트 로드 시 1회)
+    // ------------------------------------------------------------
+
+    /**
+     * playerGetter / captures 체인을 eventClass 기준으로 컴파일해 보관
+     * 해석에 실패한 체인은 제외하고 오류 메시지로 돌려줌 (로드 로그용)
+     */
+    public List<String> compile(Class<?> eventType) {
+        List<String> errors = new ArrayList<>(0);
+
+        GetterChain player = null;
+        if (playerGetter != null && !playerGetter.isBlank()) {
+            try {
+                player = GetterChain.compile(eventType, playerGetter);
+            } catch (IllegalArgumentException ex) {
+                errors.add("player_variable '" + playerGetter + "': " + ex.getMessage());
+            }
+        }
+
+        Map<String, GetterChain> out = new LinkedHashMap<>(captures.size());
+        for (Map.Entry<String, String> e : captures.entrySet()) {
+            try {
+                out.put(e.getKey(), GetterChain.compile(eventType, e.getValue()));
+            } catch (IllegalArgumentException ex) {
+                errors.add("%" + e.getKey() + "% '" + e.getValue() + "': " + ex.getMessage());
+            }
+        }
+
+        this.compiledPlayer = player;
+        this.compiledCaptures = out.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(out);
+        return errors;
+    }
+
+    /** 컴파일된 플레이어 접근자 (없거나 실패 시 null) */
+    public GetterChain compiledPlayer() {
+        return compiledPlayer;
+    }
+
+    /** 컴파일에 성공한 변수명 -> 접근자 (선언 순서 유지) */
+    public Map<String, GetterChain> compiledCaptures() {
+        return compiledCaptures;
+    }
+
     @Override
     public String toString() {
         return "CustomEventData{" +
@@ -86,7 +136,7 @@ public final class CustomEventData {
         Map<String, Object> out = new LinkedHashMap<>();
 
         out.put("event", eventClass);
-        out.put("player_variable", playerGetter);
+        if (playerGetter != null && !playerGetter.isBlank()) out.put("player_variable", playerGetter);
 
         if (captures != null && !captures.isEmpty()) {
             List<String> lines = new ArrayList<>(captures.size());
@@ -0,0 +1,137 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EventTypeRegistry
+ * - 이벤트 키 문자열을 조밀한(dense) int id 로 인터닝
+ * - 기본 디스패처 키는 클래스 로드 시 고정 id 를 가짐
+ * - 동적/커스텀 키는 퀘스트 로드 시 뒤쪽 id 를 할당받음
+ * - id 는 절대 재사용/삭제되지 않으므로 배열 인덱스로 안전하게 사용 가능
+ */
+public final class EventTypeRegistry {
+
+    /** 등록되지 않은 키 */
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>(64);
+    private static volatile String[] names = new String[0];
+
+    // ------------------------------------------------------------
+    // EventDispatcher 가 발행하는 기본 키
+    // ------------------------------------------------------------
+    public static final int BLOCK_BREAK = register("BLOCK_BREAK");
+    public static final int BLOCK_PLACE = register("BLOCK_PLACE");
+    public static final int BLOCK_FERTILIZING = register("BLOCK_FERTILIZING");
+    public static final int BLOCK_BURN = register("BLOCK_BURN");
+    public static final int BLOCK_EXPLODE = register("BLOCK_EXPLODE");
+
+    public static final int ITEM_CONSUME = register("ITEM_CONSUME");
+    public static final int ITEM_BREAK = register("ITEM_BREAK");
+    public static final int ITEM_DAMAGE = register("ITEM_DAMAGE");
+    public static final int ITEM_MENDING = register("ITEM_MENDING");
+    public static final int ITEM_PICKUP = register("ITEM_PICKUP");
+    public static final int ITEM_DROP = register("ITEM_DROP");
+    public static final int ITEM_CRAFT = register("ITEM_CRAFT");
+    public static final int ITEM_ENCHANT = register("ITEM_ENCHANT");
+    public static final int ITEM_REPAIR = register("ITEM_REPAIR");
+    public static final int SMITHING = register("SMITHING");
+    public static final int BREWING = register("BREWING");
+    public static final int ITEM_MOVE = register("ITEM_MOVE");
+    public static final int INVENTORY_OPEN = register("INVENTORY_OPEN");
+
+    public static final int PLAYER_PRE_JOIN = register("PLAYER_PRE_JOIN");
+    public static final int PLAYER_LEAVE = register("PLAYER_LEAVE");
+    public static final int PLAYER_RESPAWN = register("PLAYER_RESPAWN");
+    public static final int PLAYER_CHAT = register("PLAYER_CHAT");
+    public static final int PLAYER_COMMAND = register("PLAYER_COMMAND");
+    public static final int PLAYER_WALK = register("PLAYER_WALK");
+    public static final int PLAYER_TELEPORT = register("PLAYER_TELEPORT");
+    public static final int PLAYER_BED_ENTER = register("PLAYER_BED_ENTER");
+    public static final int PLAYER_SWAP_HAND = register("PLAYER_SWAP_HAND");
+    public static final int PLAYER_EXP_GAIN = register("PLAYER_EXP_GAIN");
+    public static final int PLAYER_LEVELUP = register("PLAYER_LEVELUP");
+    public static final int PLAYER_ARMOR = register("PLAYER_ARMOR");
+
+    public static final int MOBKILLING = register("MOBKILLING");
+    public static final int TAMING = register("TAMING");
+    public static final int BREEDING = register("BREEDING");
+    public static final int DEAL_DAMAGE = register("DEAL_DAMAGE");
+    public static final int ENTITY_INTERACT = register("ENTITY_INTERACT");
+    public static final int FISHING = register("FISHING");
+
+    public static final int WORLD_CHUNK_LOAD = register("WORLD_CHUNK_LOAD");
+
+    public static final int MYTHICMOBS_ENTITY_SPAWN = register("MYTHICMOBS_ENTITY_SPAWN");
+    public static final int MYTHICMOBS_ENTITY_KILL = register("MYTHICMOBS_ENTITY_KILL");
+
+    // ------------------------------------------------------------
+    // 별칭 (퀘스트 파일에서 쓰이는 다른 이름 -> 디스패처 키)
+    // ------------------------------------------------------------
+    static {
+        alias("ENTITY_KILL", MOBKILLING);
+        alias("MOB_KILL", MOBKILLING);
+    }
+
+    private EventTypeRegistry() {}
+
+    /** 키 정규화 (trim + 대문자) */
+    public static String normalize(String key) {
+        if (key == null) return "";
+        return key.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 키에 id 를 할당 (이미 있으면 기존 id 반환)
+     * 퀘스트 로드/리스너 등록 시점에만 호출할 것
+     */
+    public static int register(String key) {
+        String k = normalize(key);
+        if (k.isEmpty()) return UNKNOWN;
+        Integer id = IDS.get(k);
+        if (id != null) return id;
+        synchronized (IDS) {
+            id = IDS.get(k);
+            if (id != null) return id;
+            String[] cur = names;
+            int next = cur.length;
+            String[] grown = new String[next + 1];
+            System.arraycopy(cur, 0, grown, 0, next);
+            grown[next] = k.intern();
+            names = grown;
+            IDS.put(grown[next], next);
+            return next;
+        }
+    }
+
+    /**
+     * 기존 id 에 다른 키를 연결
+     * name(id) 는 원래 키를 그대로 반환
+     */
+    public static void alias(String key, int id) {
+        String k = normalize(key);
+        if (k.isEmpty() || id < 0 || id >= names.length) return;
+        IDS.putIfAbsent(k.intern(), id);
+    }
+
+    /** 등록된 id 조회 (할당하지 않음) */
+    public static int lookup(String key) {
+        if (key == null) return UNKNOWN;
+        Integer id = IDS.get(key);
+        if (id == null) id = IDS.get(normalize(key));
+        return id == null ? UNKNOWN : id;
+    }
+
+    /** id -> 정규화된 키 */
+    public static String name(int id) {
+        String[] n = names;
+        return (id >= 0 && id < n.length) ? n[id] : "";
+    }
+
+    /** 현재까지 할당된 id 개수 (배열 크기 산정용) */
+    public static int size() {
+        return names.length;
+    }
+}
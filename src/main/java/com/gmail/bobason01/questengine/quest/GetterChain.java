@@ -0,0 +1,128 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GetterChain
+ * - "getPlayer().getWorld().getName()" 같은 무인자 getter 체인을 MethodHandle 배열로 컴파일
+ * - 각 단계는 선언된 반환 타입 기준으로 해석 (로드 시점에 존재 여부 검증)
+ * - 괄호 없는 단계는 메서드 -> getX() -> isX() -> public 필드 순으로 해석
+ * - 중간 값이 null 이거나 호출 중 예외가 나면 null 반환 (이벤트 처리 중 예외 전파 없음)
+ */
+public final class GetterChain {
+
+    private static final MethodType OBJ_TO_OBJ = MethodType.methodType(Object.class, Object.class);
+
+    /** 원본 체인 문자열 */
+    public final String source;
+    private final Class<?> resultType;
+    private final MethodHandle[] steps;
+
+    private GetterChain(String source, Class<?> resultType, MethodHandle[] steps) {
+        this.source = source;
+        this.resultType = resultType;
+        this.steps = steps;
+    }
+
+    /**
+     * root 타입 기준으로 체인을 컴파일
+     * @throws IllegalArgumentException 문법 오류 또는 존재하지 않는 멤버
+     */
+    public static GetterChain compile(Class<?> root, String chain) {
+        if (root == null) throw new IllegalArgumentException("no root type");
+        if (chain == null || chain.isBlank()) throw new IllegalArgumentException("empty chain");
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        List<MethodHandle> steps = new ArrayList<>(4);
+        Class<?> type = root;
+
+        for (String seg : chain.trim().split("\\.")) {
+            String name = seg.trim();
+            boolean call = name.endsWith("()");
+            if (call) name = name.substring(0, name.length() - 2).trim();
+            if (name.isEmpty() || name.indexOf('(') >= 0 || name.indexOf(')') >= 0) {
+                throw new IllegalArgumentException("invalid segment '" + seg + "' in " + chain);
+            }
+
+            MethodHandle mh;
+            Class<?> next;
+            Method m = findMethod(type, name);
+            if (m == null && !call) {
+                String cap = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                m = findMethod(type, "get" + cap);
+                if (m == null) m = findMethod(type, "is" + cap);
+            }
+            try {
+                if (m != null) {
+                    mh = lookup.unreflect(m);
+                    next = m.getReturnType();
+                } else {
+                    Field f = call ? null : findField(type, name);
+                    if (f == null) {
+                        throw new IllegalArgumentException("unknown member '" + name + "' on " + type.getName());
+                    }
+                    mh = lookup.unreflectGetter(f);
+                    next = f.getType();
+                }
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException("inaccessible member '" + name + "' on " + type.getName());
+            }
+
+            if (next == Void.TYPE) {
+                throw new IllegalArgumentException("'" + name + "' on " + type.getName() + " returns void");
+            }
+            steps.add(mh.asType(OBJ_TO_OBJ));
+            type = next;
+        }
+
+        return new GetterChain(chain.trim(), type, steps.toArray(new MethodHandle[0]));
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            Method m = type.getMethod(name);
+            return Modifier.isStatic(m.getModifiers()) ? null : m;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        try {
+            Field f = type.getField(name);
+            return Modifier.isStatic(f.getModifiers()) ? null : f;
+        } catch (NoSuchFieldException ex) {
+            return null;
+        }
+    }
+
+    /** 체인의 최종 선언 타입 */
+    public Class<?> resultType() {
+        return resultType;
+    }
+
+    public Object apply(Object target) {
+        Object cur = target;
+        try {
+            for (MethodHandle step : steps) {
+                if (cur == null) return null;
+                cur = step.invokeExact(cur);
+            }
+        } catch (Throwable t) {
+            return null;
+        }
+        return cur;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
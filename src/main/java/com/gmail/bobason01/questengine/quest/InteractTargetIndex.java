@@ -0,0 +1,95 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.util.*;
+
+/**
+ * InteractTargetIndex
+ * - ENTITY_INTERACT 퀘스트 중 NPC/PUBLIC 시작 퀘스트만 대상으로 하는 target-id 해시 인덱스
+ * - 정확한 이름 타깃(CITIZENS_3, VILLAGER 등)은 대문자 키 -> 첫 퀘스트 위치로 바로 조회
+ * - 와일드카드 / 태그 / 제외 토큰처럼 해시로 풀 수 없는 타깃과 타깃 없는 퀘스트는 fallback 으로 보관
+ * - 결과는 기존 선형 탐색과 동일하게 "목록 순서상 첫 번째 매칭 퀘스트"
+ * - 불변 객체, QuestRepository 가 리로드 시 새로 만들어 통째로 교체
+ */
+public final class InteractTargetIndex {
+
+    public static final InteractTargetIndex EMPTY = new InteractTargetIndex(new QuestDef[0], Map.of(), new int[0]);
+
+    private final QuestDef[] quests;
+    /* 대문자 target-id -> quests 내 가장 앞선 위치 */
+    private final Map<String, Integer> exact;
+    /* 해시로 풀 수 없는 퀘스트 위치 (오름차순) */
+    private final int[] fallback;
+
+    private InteractTargetIndex(QuestDef[] quests, Map<String, Integer> exact, int[] fallback) {
+        this.quests = quests;
+        this.exact = exact;
+        this.fallback = fallback;
+    }
+
+    public static InteractTargetIndex build(QuestDef[] defs) {
+        if (defs == null || defs.length == 0) return EMPTY;
+
+        List<QuestDef> eligible = new ArrayList<>(defs.length);
+        for (QuestDef def : defs) {
+            if (def == null) continue;
+            if (def.startMode != QuestDef.StartMode.PUBLIC && def.startMode != QuestDef.StartMode.NPC) continue;
+            eligible.add(def);
+        }
+        if (eligible.isEmpty()) return EMPTY;
+
+        QuestDef[] quests = eligible.toArray(new QuestDef[0]);
+        Map<String, Integer> exact = new HashMap<>();
+        List<Integer> fallback = new ArrayList<>();
+
+        for (int qi = 0; qi < quests.length; qi++) {
+            QuestDef def = quests[qi];
+            if (!def.hasTarget() || !indexable(def.targets)) {
+                fallback.add(qi);
+                continue;
+            }
+            for (String line : def.targets) {
+                for (String raw : line.split("\\|")) {
+                    String tok = raw.trim();
+                    if (tok.isEmpty()) continue;
+                    exact.putIfAbsent(tok.toUpperCase(Locale.ROOT), qi);
+                }
+            }
+        }
+
+        int[] fb = new int[fallback.size()];
+        for (int i = 0; i < fb.length; i++) fb[i] = fallback.get(i);
+        return new InteractTargetIndex(quests, Map.copyOf(exact), fb);
+    }
+
+    /* 정확한 이름 토큰만으로 구성되어 해시 조회로 충분한지 */
+    private static boolean indexable(List<String> targets) {
+        for (String line : targets) {
+            if (line == null) continue;
+            for (String raw : line.split("\\|")) {
+                String tok = raw.trim();
+                if (tok.isEmpty()) continue;
+                char c = tok.charAt(0);
+                if (c == '!' || c == '#' || tok.indexOf('*') >= 0 || tok.indexOf('?') >= 0) return false;
+            }
+        }
+        return true;
+    }
+
+    /** target-id 에 매칭되는 첫 번째 퀘스트 (없으면 null) */
+    public QuestDef first(String targetId) {
+        if (quests.length == 0 || targetId == null || targetId.isEmpty()) return null;
+
+        Integer hit = exact.get(targetId);
+        if (hit == null) hit = exact.get(targetId.toUpperCase(Locale.ROOT));
+        int best = hit == null ? Integer.MAX_VALUE : hit;
+
+        for (int qi : fallback) {
+            if (qi >= best) break;
+            if (quests[qi].matchesTarget(targetId)) {
+                best = qi;
+                break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : quests[best];
+    }
+}
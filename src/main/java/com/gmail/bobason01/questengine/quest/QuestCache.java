@@ -0,0 +1,224 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * QuestCache
+ * - 컴파일된 QuestDef 전체를 데이터 폴더의 바이너리 파일 하나로 보관
+ * - 파일별 mtime / 크기 / 내용 해시를 함께 저장해 원본이 바뀐 파일만 무효화
+ * - 시작 시 파일 전체를 한 번에 읽어 복원 (원본이 그대로면 YAML 파싱 없음)
+ * - TargetSet 은 태그 / 글롭 해석 결과까지 저장
+ * - 포맷 버전 / 플러그인 버전 / 서버 버전 중 하나라도 다르면 통째로 무시
+ *   (FORMAT 을 올리지 않은 채 직렬화가 바뀐 업데이트도 전체 파싱으로 돌아감)
+ */
+final class QuestCache {
+
+    private static final int MAGIC = 0x51454331; // "QEC1"
+    private static final int FORMAT = 2;
+
+    /* 파일 하나의 캐시 항목 (def 가 null 이면 파싱 실패했던 파일) */
+    record Entry(long mtime, long size, long hash, QuestDef def) {}
+
+    private final File file;
+    private final String pluginVersion;
+    private final String serverVersion;
+
+    QuestCache(File file, String pluginVersion, String serverVersion) {
+        this.file = file;
+        this.pluginVersion = pluginVersion == null ? "" : pluginVersion;
+        this.serverVersion = serverVersion == null ? "" : serverVersion;
+    }
+
+    // ------------------------------------------------------------
+    // 읽기
+    // ------------------------------------------------------------
+
+    /** 캐시 전체 복원 (없거나 손상/버전 불일치면 빈 맵) */
+    Map<String, Entry> load() throws IOException {
+        if (!file.isFile()) return Map.of();
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT) return Map.of();
+        if (!pluginVersion.equals(in.readUTF())) return Map.of();
+        if (!serverVersion.equals(in.readUTF())) return Map.of();
+
+        int count = in.readInt();
+        Map<String, Entry> out = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            long mtime = in.readLong();
+            long size = in.readLong();
+            long hash = in.readLong();
+            QuestDef def = in.readBoolean() ? readDef(in) : null;
+            out.put(name, new Entry(mtime, size, hash, def));
+        }
+        return out;
+    }
+
+    private static QuestDef readDef(DataInput in) throws IOException {
+        String id = in.readUTF();
+        String name = readString(in);
+        String event = in.readUTF();
+        List<String> targets = readList(in);
+        TargetSet targetSet = TargetSet.read(in);
+        int amount = in.readInt();
+        int repeat = in.readInt();
+        int points = in.readInt();
+        boolean pub = in.readBoolean();
+        boolean party = in.readBoolean();
+        String type = in.readUTF();
+        QuestDef.StartMode mode = QuestDef.StartMode.valueOf(in.readUTF());
+        QuestDef.Reset reset = new QuestDef.Reset(in.readUTF(), in.readUTF());
+
+        Map<String, Object> raw = new LinkedHashMap<>(16);
+        raw.put("title", readString(in));
+        raw.put("description", readList(in));
+        raw.put("progress", readString(in));
+        raw.put("reward", readString(in));
+        raw.put("category", readString(in));
+        raw.put("difficulty", readString(in));
+        raw.put("icon", readString(in));
+        raw.put("hint", readString(in));
+        raw.put("custommodeldata", in.readInt());
+        QuestDef.Display display = new QuestDef.Display(raw);
+
+        CustomEventData custom = null;
+        if (in.readBoolean()) {
+            String cls = in.readUTF();
+            String getter = in.readUTF();
+            int n = in.readInt();
+            Map<String, String> captures = new LinkedHashMap<>(n * 2);
+            for (int i = 0; i < n; i++) captures.put(in.readUTF(), readString(in));
+            custom = new CustomEventData(cls, getter, captures);
+        }
+
+        List<String> condStart = readList(in);
+        List<String> condSuccess = readList(in);
+        List<String> condFail = readList(in);
+
+        int groups = in.readInt();
+        Map<String, List<String>> actions = new LinkedHashMap<>(groups * 2);
+        for (int i = 0; i < groups; i++) actions.put(in.readUTF(), readList(in));
+
+        String next = in.readUTF();
+
+        return new QuestDef(id, name, event, targets, amount, repeat, points, pub, party, type,
+                reset, display, custom, condStart, condSuccess, condFail, actions, next, mode, targetSet);
+    }
+
+    // ------------------------------------------------------------
+    // 쓰기 (임시 파일에 쓴 뒤 교체)
+    // ------------------------------------------------------------
+    void save(Map<String, Entry> entries) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("cannot create " + parent);
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeUTF(pluginVersion);
+            out.writeUTF(serverVersion);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry v = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeLong(v.mtime());
+                out.writeLong(v.size());
+                out.writeLong(v.hash());
+                out.writeBoolean(v.def() != null);
+                if (v.def() != null) writeDef(out, v.def());
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeDef(DataOutput out, QuestDef q) throws IOException {
+        out.writeUTF(q.id);
+        writeString(out, q.name);
+        out.writeUTF(q.event);
+        writeList(out, q.targets);
+        q.targetSet.write(out);
+        out.writeInt(q.amount);
+        out.writeInt(q.repeat);
+        out.writeInt(q.points);
+        out.writeBoolean(q.isPublic);
+        out.writeBoolean(q.party);
+        out.writeUTF(q.type);
+        out.writeUTF(q.startMode.name());
+        out.writeUTF(q.reset.policy);
+        out.writeUTF(q.reset.time);
+
+        QuestDef.Display d = q.display;
+        writeString(out, d.title);
+        writeList(out, d.description);
+        writeString(out, d.progress);
+        writeString(out, d.reward);
+        writeString(out, d.category);
+        writeString(out, d.difficulty);
+        writeString(out, d.icon);
+        writeString(out, d.hint);
+        out.writeInt(d.customModelData);
+
+        CustomEventData c = q.custom;
+        out.writeBoolean(c != null);
+        if (c != null) {
+            out.writeUTF(c.eventClass == null ? "" : c.eventClass);
+            out.writeUTF(c.playerGetter == null ? "" : c.playerGetter);
+            out.writeInt(c.captures.size());
+            for (Map.Entry<String, String> e : c.captures.entrySet()) {
+                out.writeUTF(e.getKey());
+                writeString(out, e.getValue());
+            }
+        }
+
+        writeList(out, q.condStart);
+        writeList(out, q.condSuccess);
+        writeList(out, q.condFail);
+
+        out.writeInt(q.actions.size());
+        for (Map.Entry<String, List<String>> e : q.actions.entrySet()) {
+            out.writeUTF(e.getKey());
+            writeList(out, e.getValue());
+        }
+
+        out.writeUTF(q.nextQuestOnComplete == null ? "" : q.nextQuestOnComplete);
+    }
+
+    // ------------------------------------------------------------
+    // 문자열 헬퍼 (writeUTF 의 64KB 제한 없는 길이 접두 UTF-8)
+    // ------------------------------------------------------------
+    private static void writeString(DataOutput out, String s) throws IOException {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n == 0) return "";
+        byte[] b = new byte[n];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeList(DataOutput out, List<String> list) throws IOException {
+        out.writeInt(list.size());
+        for (String s : list) writeString(out, s);
+    }
+
+    private static List<String> readList(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n == 0) return List.of();
+        List<String> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) list.add(readString(in));
+        return list;
+    }
+}
@@ -26,9 +26,12 @@ public final class QuestDef {
     // 기본 메타
     // ------------------------------------------------------------
     public final String id;
+    public final int ordinal; // QuestOrdinals 인덱스
     public final String name;
     public final String event;
+    public final int eventId; // EventTypeRegistry 인덱스
     public final List<String> targets;
+    public final TargetSet targetSet; // 로드 시 컴파일된 targets
     public final int amount;
     public final int repeat;
     public final int points;
@@ -79,11 +82,45 @@ public final class QuestDef {
             Map<String, List<String>> actions,
             String nextQuestOnComplete,
             StartMode startMode
+    ) {
+        this(id, name, event, targets, amount, repeat, points, isPublic, party, type, reset, display, custom,
+                condStart, condSuccess, condFail, actions, nextQuestOnComplete, startMode, null);
+    }
+
+    /* 캐시 복원용: 이미 컴파일된 TargetSet 을 그대로 사용 (null 이면 컴파일) */
+    QuestDef(
+            String id,
+            String name,
+            String event,
+            List<String> targets,
+            int amount,
+            int repeat,
+            int points,
+            boolean isPublic,
+            boolean party,
+            String type,
+            Reset reset,
+            Display display,
+            CustomEventData custom,
+            List<String> condStart,
+            List<String> condSuccess,
+            List<String> condFail,
+            Map<String, List<String>> actions,
+            String nextQuestOnComplete,
+            StartMode startMode,
+            TargetSet compiledTargets
     ) {
         this.id = nonNullLower(id);
+        this.ordinal = QuestOrdinals.register(this.id);
         this.name = safe(name, this.id);
-        this.event = safe(event, "CUSTOM").toUpperCase(Locale.ROOT).intern();
+        String rawEvent = safe(event, "CUSTOM").trim();
+        // 이벤트 클래스 FQCN 은 Class.forName 을 위해 대소문자 유지
+        this.event = (rawEvent.indexOf('.') >= 0 ? rawEvent : rawEvent.toUpperCase(Locale.ROOT)).intern();
+        this.custom = custom;
+        String cls = eventClassName();
+        this.eventId = EventTypeRegistry.register(cls != null ? cls : this.event);
         this.targets = (targets == null || targets.isEmpty()) ? List.of() : List.copyOf(targets);
+        this.targetSet = compiledTargets != null ? compiledTargets : TargetSet.compile(this.targets);
         this.amount = Math.max(1, amount);
         this.repeat = repeat;
         this.points = Math.max(0, points);
@@ -92,7 +129,6 @@ public final class QuestDef {
         this.type = safe(type, "vanilla").toLowerCase(Locale.ROOT).intern();
         this.reset = (reset == null) ? new Reset("", "") : reset;
         this.display = (display == null) ? new Display(Map.of()) : display;
-        this.custom = custom;
         this.startMode = (startMode == null) ? StartMode.NONE : startMode;
 
         this.condStart = (condStart == null || condStart.isEmpty()) ? List.of() : List.copyOf(condStart);
@@ -166,11 +202,22 @@ public final class QuestDef {
     // ------------------------------------------------------------
     public boolean hasTarget() { return !targets.isEmpty(); }
 
+    /**
+     * 동적 리스너로 받아야 하는 이벤트 클래스 FQCN
+     * - event 자체가 FQCN 인 경우
+     * - event 가 CUSTOM / CUSTOM_EVENT 이고 custom_event_data.event 가 있는 경우
+     * - 둘 다 아니면 null (EventDispatcher 기본 키)
+     */
+    public String eventClassName() {
+        if (event.indexOf('.') >= 0) return event;
+        if (!"CUSTOM_EVENT".equals(event) && !"CUSTOM".equals(event)) return null;
+        if (custom == null || custom.eventClass == null || custom.eventClass.isBlank()) return null;
+        return custom.eventClass.trim();
+    }
+
     public boolean matchesTarget(String candidate) {
         if (!hasTarget()) return true;
-        if (candidate == null) return false;
-        for (String t : targets) if (t.equalsIgnoreCase(candidate)) return true;
-        return false;
+        return targetSet.testName(candidate);
     }
 
     // ------------------------------------------------------------
@@ -181,8 +228,12 @@ public final class QuestDef {
     }
 
     public static QuestDef load(File file) {
-        YamlConfiguration yml = YamlConfiguration.loadConfiguration(file);
-        String id = stripExt(file.getName()).toLowerCase(Locale.ROOT);
+        return load(file.getName(), YamlConfiguration.loadConfiguration(file));
+    }
+
+    /** 이미 파싱된 YAML 로부터 생성 (id 는 파일명 기준) */
+    public static QuestDef load(String fileName, YamlConfiguration yml) {
+        String id = stripExt(fileName).toLowerCase(Locale.ROOT);
         String name = yml.getString("name", id);
         String event = yml.getString("event", "CUSTOM");
 
@@ -0,0 +1,90 @@
+package com.gmail.bobason01.questengine.quest;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuestFolderWatcher
+ * - quests 폴더를 WatchService 로 감시하는 데몬 스레드
+ * - .yml / .yaml 생성 / 수정 / 삭제가 감지되면 debounce 동안 추가 이벤트를 모은 뒤
+ *   QuestRepository.reloadChanged() 한 번 호출 (바뀐 파일만 재파싱)
+ * - 에디터 저장처럼 여러 번 연속으로 쓰이는 경우에도 리로드는 한 번
+ */
+public final class QuestFolderWatcher implements AutoCloseable {
+
+    private final Plugin plugin;
+    private final QuestRepository repo;
+    private final long debounceMs;
+    private final WatchService watch;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public QuestFolderWatcher(Plugin plugin, QuestRepository repo, long debounceMs) throws IOException {
+        this.plugin = plugin;
+        this.repo = repo;
+        this.debounceMs = Math.max(50L, debounceMs);
+        this.watch = FileSystems.getDefault().newWatchService();
+        repo.folder().toPath().register(watch,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        this.thread = new Thread(this::loop, "QuestEngine-QuestWatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                WatchKey key = watch.take();
+                boolean relevant = drain(key);
+
+                // debounce: 조용해질 때까지 추가 이벤트 흡수
+                WatchKey more;
+                while ((more = watch.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(more);
+                }
+                if (!relevant) continue;
+
+                QuestRepository.ReloadResult r = repo.reloadChanged();
+                if (!r.isEmpty()) {
+                    plugin.getLogger().info("[QuestEngine] Quest folder change applied (+" + r.added()
+                            + " ~" + r.changed() + " -" + r.removed() + ")");
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (Throwable t) {
+                plugin.getLogger().warning("[QuestEngine] Quest hot reload failed: " + t.getMessage());
+            }
+        }
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (ev.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            Object ctx = ev.context();
+            if (!(ctx instanceof Path p)) continue;
+            String n = p.getFileName().toString();
+            if (n.endsWith(".yml") || n.endsWith(".yaml")) relevant = true;
+        }
+        key.reset();
+        return relevant;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            watch.close();
+        } catch (IOException ignored) {}
+        thread.interrupt();
+    }
+}
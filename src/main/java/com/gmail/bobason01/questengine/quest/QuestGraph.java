@@ -0,0 +1,204 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * QuestGraph
+ * - 로드 시점에 만드는 퀘스트 의존 그래프 (스냅샷과 함께 교체되는 불변 객체)
+ * - next 간선: chain.next 우선, 없으면 next 액션 첫 줄 ("quest start <id>" 또는 맨 앞 id)
+ * - requires 간선: start 조건의 %questengine_completed_<id>% (선행 퀘스트)
+ * - 간선은 해석된 QuestDef 참조로 보관 (완료 흐름에서 문자열 파싱 / 맵 조회 없음)
+ * - 존재하지 않는 대상(dangling) 과 순환은 diagnostics 로 보고
+ */
+public final class QuestGraph {
+
+    public static final QuestGraph EMPTY = new QuestGraph(Map.of(), List.of());
+
+    private static final Pattern START_CMD = Pattern.compile("(?i)\\bquest\\s+start\\s+([A-Za-z0-9_.\\-]+)");
+    private static final Pattern PLAIN_ID = Pattern.compile("[A-Za-z0-9_.\\-]+");
+    private static final Pattern REQUIRES = Pattern.compile("(?i)%questengine_completed_([a-z0-9_.\\-]+)%");
+
+    /**
+     * 퀘스트 하나의 간선
+     * - nextId: 선언된 다음 퀘스트 id (없으면 null), next: 해석 결과 (dangling 이면 null)
+     * - requires: 선행 퀘스트, unlocks: 이 퀘스트를 선행으로 가지는 퀘스트
+     * - cyclic: 순환에 포함됨 (완료 후 자동 연결하지 않음, 자기 자신 체인은 repeat 로 처리)
+     */
+    public record Node(QuestDef def, String nextId, QuestDef next,
+                       List<QuestDef> requires, List<QuestDef> unlocks, boolean cyclic) {}
+
+    private final Map<String, Node> nodes;
+    private final List<String> diagnostics;
+
+    private QuestGraph(Map<String, Node> nodes, List<String> diagnostics) {
+        this.nodes = nodes;
+        this.diagnostics = diagnostics;
+    }
+
+    // ------------------------------------------------------------
+    // 구성
+    // ------------------------------------------------------------
+    public static QuestGraph build(Map<String, QuestDef> byId) {
+        if (byId.isEmpty()) return EMPTY;
+        List<String> diag = new ArrayList<>();
+
+        Map<String, String> nextIds = new HashMap<>(byId.size() * 2);
+        Map<String, QuestDef> nextOf = new HashMap<>(byId.size() * 2);
+        Map<String, List<QuestDef>> requires = new HashMap<>();
+        Map<String, List<QuestDef>> unlocks = new HashMap<>();
+
+        for (QuestDef q : byId.values()) {
+            String nid = declaredNext(q);
+            if (nid != null) {
+                nextIds.put(q.id, nid);
+                QuestDef target = byId.get(nid);
+                if (target == null) diag.add("quest " + q.id + " chains to unknown quest '" + nid + "'");
+                else nextOf.put(q.id, target);
+            }
+
+            for (String cond : q.condStart) {
+                Matcher m = REQUIRES.matcher(cond);
+                while (m.find()) {
+                    String rid = m.group(1).toLowerCase(Locale.ROOT);
+                    QuestDef pre = byId.get(rid);
+                    if (pre == null) {
+                        diag.add("quest " + q.id + " requires unknown quest '" + rid + "'");
+                        continue;
+                    }
+                    List<QuestDef> r = requires.computeIfAbsent(q.id, k -> new ArrayList<>(2));
+                    if (!r.contains(pre)) {
+                        r.add(pre);
+                        unlocks.computeIfAbsent(pre.id, k -> new ArrayList<>(2)).add(q);
+                    }
+                }
+            }
+        }
+
+        Set<String> cyclic = findCycles(byId, nextOf, requires, diag);
+
+        Map<String, Node> nodes = new HashMap<>(byId.size() * 2);
+        for (QuestDef q : byId.values()) {
+            nodes.put(q.id, new Node(q, nextIds.get(q.id), nextOf.get(q.id),
+                    List.copyOf(requires.getOrDefault(q.id, List.of())),
+                    List.copyOf(unlocks.getOrDefault(q.id, List.of())),
+                    cyclic.contains(q.id)));
+        }
+        return new QuestGraph(Collections.unmodifiableMap(nodes), List.copyOf(diag));
+    }
+
+    /** chain.next, 없으면 next 액션 첫 줄에서 다음 퀘스트 id 추출 */
+    static String declaredNext(QuestDef q) {
+        if (q.nextQuestOnComplete != null && !q.nextQuestOnComplete.isEmpty()) {
+            return q.nextQuestOnComplete.toLowerCase(Locale.ROOT);
+        }
+        List<String> list = q.actions.get("next");
+        if (list == null || list.isEmpty() || list.get(0) == null) return null;
+
+        String s = list.get(0).trim();
+        if (s.isEmpty()) return null;
+        Matcher m = START_CMD.matcher(s);
+        if (m.find()) return m.group(1).toLowerCase(Locale.ROOT);
+
+        int sp = s.indexOf(' ');
+        String head = sp > 0 ? s.substring(0, sp) : s;
+        return PLAIN_ID.matcher(head).matches() ? head.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * next + requires(선행 -> 후행) 간선의 순환 탐지 (반복 DFS, 3색)
+     * @return 순환에 포함된 퀘스트 id
+     */
+    private static Set<String> findCycles(Map<String, QuestDef> byId, Map<String, QuestDef> nextOf,
+                                          Map<String, List<QuestDef>> requires, List<String> diag) {
+        Map<String, List<String>> out = new HashMap<>(byId.size() * 2);
+        for (Map.Entry<String, QuestDef> e : nextOf.entrySet()) {
+            out.computeIfAbsent(e.getKey(), k -> new ArrayList<>(2)).add(e.getValue().id);
+        }
+        for (Map.Entry<String, List<QuestDef>> e : requires.entrySet()) {
+            for (QuestDef pre : e.getValue()) {
+                List<String> l = out.computeIfAbsent(pre.id, k -> new ArrayList<>(2));
+                if (!l.contains(e.getKey())) l.add(e.getKey());
+            }
+        }
+        if (out.isEmpty()) return Set.of();
+
+        Set<String> cyclic = new HashSet<>();
+        Map<String, Integer> color = new HashMap<>(byId.size() * 2); // 없음=미방문, 1=진행 중, 2=완료
+        List<String> ids = new ArrayList<>(out.keySet());
+        Collections.sort(ids);
+
+        for (String root : ids) {
+            if (color.containsKey(root)) continue;
+            Deque<String> path = new ArrayDeque<>();
+            Deque<Iterator<String>> stack = new ArrayDeque<>();
+            color.put(root, 1);
+            path.addLast(root);
+            stack.push(out.getOrDefault(root, List.of()).iterator());
+
+            while (!stack.isEmpty()) {
+                Iterator<String> it = stack.peek();
+                if (!it.hasNext()) {
+                    stack.pop();
+                    color.put(path.removeLast(), 2);
+                    continue;
+                }
+                String to = it.next();
+                Integer c = color.get(to);
+                if (c == null) {
+                    color.put(to, 1);
+                    path.addLast(to);
+                    stack.push(out.getOrDefault(to, List.of()).iterator());
+                } else if (c == 1) {
+                    // path 에서 to 부터 끝까지가 순환
+                    List<String> cycle = new ArrayList<>();
+                    boolean in = false;
+                    for (String id : path) {
+                        if (id.equals(to)) in = true;
+                        if (in) cycle.add(id);
+                    }
+                    cyclic.addAll(cycle);
+                    cycle.add(to);
+                    diag.add("quest chain cycle: " + String.join(" -> ", cycle) + " (auto-chain disabled)");
+                }
+            }
+        }
+        return cyclic;
+    }
+
+    // ------------------------------------------------------------
+    // 조회
+    // ------------------------------------------------------------
+    public Node node(QuestDef def) {
+        return def == null ? null : nodes.get(def.id);
+    }
+
+    /** 완료 후 이어지는 퀘스트 (없거나 dangling 이면 null) */
+    public QuestDef next(QuestDef def) {
+        Node n = node(def);
+        return n == null ? null : n.next();
+    }
+
+    /** 완료 후 자동으로 시작할 퀘스트 (순환에 포함된 퀘스트는 자기 자신 체인을 빼고 null) */
+    public QuestDef chainNext(QuestDef def) {
+        Node n = node(def);
+        if (n == null || n.next() == null) return null;
+        return n.cyclic() && n.next() != def ? null : n.next();
+    }
+
+    public List<QuestDef> requires(QuestDef def) {
+        Node n = node(def);
+        return n == null ? List.of() : n.requires();
+    }
+
+    public List<QuestDef> unlocks(QuestDef def) {
+        Node n = node(def);
+        return n == null ? List.of() : n.unlocks();
+    }
+
+    /** 로드 시 발견된 dangling 간선 / 순환 */
+    public List<String> diagnostics() {
+        return diagnostics;
+    }
+}
@@ -0,0 +1,186 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * QuestOrdinals
+ * - 퀘스트 id 문자열을 조밀한(dense) int ordinal 로 인터닝
+ * - QuestRepository 가 로드 시 모든 퀘스트를 등록하고, 저장소에만 남은 id 는 진행 복원 시 뒤쪽 번호를 받음
+ * - ordinal 은 재사용/삭제되지 않으므로 비트셋 / 배열 인덱스로 안전하게 사용 가능
+ * - bind 된 파일에 "ordinal id" 한 줄씩 추가 기록 (재시작 / 퀘스트 삭제 후에도 같은 번호 유지)
+ */
+public final class QuestOrdinals {
+
+    /** 등록되지 않은 id */
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>(256);
+    private static volatile String[] names = new String[0];
+    private static int count;
+
+    private static File file;
+    private static Logger log;
+
+    private QuestOrdinals() {}
+
+    /** id 정규화 (trim + 소문자) */
+    public static String normalize(String id) {
+        if (id == null) return "";
+        return id.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * id 에 ordinal 할당 (이미 있으면 기존 값)
+     * 이미 정규화된 id 는 문자열 변환 없이 맵 조회 한 번
+     */
+    public static int register(String id) {
+        if (id == null) return UNKNOWN;
+        Integer ord = IDS.get(id);
+        if (ord != null) return ord;
+        String k = normalize(id);
+        if (k.isEmpty()) return UNKNOWN;
+        ord = IDS.get(k);
+        if (ord != null) return ord;
+        synchronized (IDS) {
+            ord = IDS.get(k);
+            if (ord != null) return ord;
+            String[] cur = names;
+            int next = count;
+            if (next == cur.length) cur = Arrays.copyOf(cur, Math.max(64, next * 2));
+            cur[next] = k.intern();
+            count = next + 1;
+            names = cur;
+            IDS.put(cur[next], next);
+            append(next, cur[next]);
+            return next;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // 영속화
+    // ------------------------------------------------------------
+
+    /**
+     * 저장 파일 연결 + 기록된 ordinal 복원
+     * 퀘스트 로드 전에 호출해야 함 (이미 할당된 번호가 있으면 메모리 쪽을 기준으로 파일을 다시 씀)
+     */
+    public static void bind(File f, Logger logger) {
+        synchronized (IDS) {
+            file = f;
+            log = logger;
+            if (count > 0) {
+                rewrite();
+                return;
+            }
+            if (f == null || !f.isFile()) return;
+            try {
+                List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+                String[] cur = new String[Math.max(64, lines.size())];
+                int max = -1;
+                for (String line : lines) {
+                    int sp = line.indexOf(' ');
+                    if (sp <= 0) continue;
+                    int ord;
+                    try {
+                        ord = Integer.parseInt(line.substring(0, sp));
+                    } catch (NumberFormatException e) {
+                        continue;
+                    }
+                    String k = normalize(line.substring(sp + 1));
+                    if (ord < 0 || k.isEmpty() || IDS.containsKey(k)) continue;
+                    if (ord >= cur.length) cur = Arrays.copyOf(cur, Math.max(ord + 1, cur.length * 2));
+                    if (cur[ord] != null) continue;
+                    cur[ord] = k.intern();
+                    IDS.put(cur[ord], ord);
+                    if (ord > max) max = ord;
+                }
+                names = cur;
+                count = max + 1;
+            } catch (IOException e) {
+                warn("Failed to read quest ordinals: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * 새 번호 한 줄 추가 (IDS 잠금 안에서 호출)
+     * 진행 저널은 id 대신 ordinal 을 기록하므로, 그 ordinal 을 쓰는 저널 기록보다 먼저 디스크에 내림
+     * (register 가 돌아온 뒤에야 기록이 만들어짐 / 새 퀘스트 id 가 생길 때만이라 드묾)
+     */
+    private static void append(int ordinal, String id) {
+        if (file == null) return;
+        try {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.exists()) dir.mkdirs();
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer b = ByteBuffer.wrap((ordinal + " " + id + "\n").getBytes(StandardCharsets.UTF_8));
+                while (b.hasRemaining()) ch.write(b);
+                ch.force(true);
+            }
+        } catch (IOException e) {
+            warn("Failed to persist quest ordinal " + id + ": " + e.getMessage());
+        }
+    }
+
+    private static void rewrite() {
+        if (file == null) return;
+        StringBuilder sb = new StringBuilder(count * 16);
+        String[] n = names;
+        for (int i = 0; i < count; i++) {
+            if (n[i] != null) sb.append(i).append(' ').append(n[i]).append('\n');
+        }
+        try {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.exists()) dir.mkdirs();
+            File tmp = new File(file.getPath() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer b = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                while (b.hasRemaining()) ch.write(b);
+                ch.force(true);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            warn("Failed to write quest ordinals: " + e.getMessage());
+        }
+    }
+
+    private static void warn(String message) {
+        if (log != null) log.warning("[QuestEngine] " + message);
+    }
+
+    /** 등록된 ordinal 조회 (할당하지 않음) */
+    public static int lookup(String id) {
+        if (id == null) return UNKNOWN;
+        Integer ord = IDS.get(id);
+        if (ord == null) ord = IDS.get(normalize(id));
+        return ord == null ? UNKNOWN : ord;
+    }
+
+    /** ordinal -> 정규화된 id */
+    public static String id(int ordinal) {
+        String[] n = names;
+        return (ordinal >= 0 && ordinal < n.length && n[ordinal] != null) ? n[ordinal] : "";
+    }
+
+    /** 현재까지 할당된 ordinal 개수 (배열 크기 산정용) */
+    public static int size() {
+        synchronized (IDS) {
+            return count;
+        }
+    }
+}
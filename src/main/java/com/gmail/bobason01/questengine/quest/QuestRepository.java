@@ -1,12 +1,20 @@
 package com.gmail.bobason01.questengine.quest;
 
 import org.bukkit.plugin.Plugin;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * QuestRepository
@@ -14,86 +22,474 @@ import java.util.concurrent.ConcurrentHashMap;
  * quests 폴더 내 YAML 퀘스트 자동 로드
  * ID와 EVENT 인덱스 동시 관리
  * 모든 id는 소문자로 통일하여 unknown quest 문제를 방지함
- * reload 시 캐시 완전 갱신
+ * - 모든 조회 구조(id 맵, 이벤트 인덱스, 타깃 인덱스)는 하나의 불변 스냅샷으로 묶어 한 번에 교체
+ * - reload(): 전체 재파싱 / reloadChanged(): mtime + 내용 해시로 바뀐 파일만 재파싱
+ * - 파일 읽기 / 파싱 / 컴파일은 fork-join 풀에서 병렬, 인덱스 병합과 교체는 한 번
+ * - QuestCache(quest-cache.bin) 에 컴파일 결과를 보관해 원본이 그대로인 파일은 YAML 파싱 생략
+ * - 교체 후 등록된 리스너에 변경된 퀘스트 id 목록 통지 (조건/액션 캐시, 동적 리스너 갱신용)
  */
 public final class QuestRepository {
 
     private final Plugin plugin;
     private final File dir;
 
-    /* id -> QuestDef */
-    private final Map<String, QuestDef> byId = new ConcurrentHashMap<>();
+    private static final QuestDef[] EMPTY = new QuestDef[0];
 
-    /* event -> QuestDef 목록 */
-    private final Map<String, List<QuestDef>> byEvent = new ConcurrentHashMap<>();
+    /* 파일별 마지막 로드 상태 */
+    private record FileStamp(long mtime, long size, long hash, String questId) {}
+
+    /* 변경 요약 */
+    public record ReloadResult(int added, int changed, int removed) {
+        public boolean isEmpty() {
+            return added == 0 && changed == 0 && removed == 0;
+        }
+    }
+
+    /**
+     * 불변 스냅샷
+     * - byId: id -> QuestDef
+     * - byOrdinal: QuestOrdinals 인덱스 -> QuestDef (삭제된 퀘스트는 null)
+     * - eventIndex: eventId -> QuestDef 목록 (EventTypeRegistry 인덱스, 읽기 전용 배열)
+     * - chat / command / interact: 이벤트별 타깃 인덱스
+     * - graph: 체인 / 선행 퀘스트 그래프
+     * - files: 파일명 -> 로드 상태
+     */
+    private record Snapshot(Map<String, QuestDef> byId,
+                            QuestDef[] byOrdinal,
+                            QuestDef[][] eventIndex,
+                            ChatTargetIndex chat,
+                            CommandTargetIndex command,
+                            InteractTargetIndex interact,
+                            QuestGraph graph,
+                            Map<String, FileStamp> files) {}
+
+    private volatile Snapshot snap = new Snapshot(Map.of(), EMPTY, new QuestDef[0][],
+            ChatTargetIndex.EMPTY, CommandTargetIndex.EMPTY, InteractTargetIndex.EMPTY, QuestGraph.EMPTY, Map.of());
+
+    /* 스냅샷 교체 후 호출 (변경된 퀘스트 id) */
+    private final List<Consumer<Set<String>>> swapListeners = new CopyOnWriteArrayList<>();
+
+    /* 리로드 직렬화 (워처 스레드 / 명령어 / 에디터) */
+    private final Object reloadLock = new Object();
+
+    /* 컴파일된 퀘스트 바이너리 캐시 (quests.cache: false 면 null) */
+    private final QuestCache cache;
 
     public QuestRepository(Plugin plugin, File dir) {
         this.plugin = plugin;
         this.dir = dir;
+        this.cache = plugin.getConfig().getBoolean("quests.cache", true)
+                ? new QuestCache(new File(plugin.getDataFolder(), "quest-cache.bin"),
+                        plugin.getDescription().getVersion(), plugin.getServer().getBukkitVersion())
+                : null;
 
         if (!dir.exists() && !dir.mkdirs()) {
             plugin.getLogger().warning("QuestEngine failed to create quest folder: " + dir.getAbsolutePath());
         }
 
         reload();
-        rebuildEventMap();
     }
 
-    /* 퀘스트 파일 전체 로드 */
+    // ------------------------------------------------------------
+    // 로드
+    // ------------------------------------------------------------
+
+    /* 퀘스트 파일 전체 로드 (병렬 파싱 후 한 번에 교체) */
     public void reload() {
-        byId.clear();
+        synchronized (reloadLock) {
+            long t0 = System.nanoTime();
+            Snapshot cur = snap;
+            Map<String, QuestDef> nextById = new HashMap<>();
+            Map<String, FileStamp> nextFiles = new HashMap<>();
 
-        File[] files = dir.listFiles((d, n) -> n.endsWith(".yml") || n.endsWith(".yaml"));
-        if (files == null || files.length == 0) {
-            plugin.getLogger().info("QuestEngine no quest files found in " + dir.getName());
-            return;
+            File[] files = listQuestFiles();
+            if (files.length == 0) {
+                plugin.getLogger().info("QuestEngine no quest files found in " + dir.getName());
+            }
+            long t1 = System.nanoTime();
+
+            // 캐시 항목과 mtime / 크기가 같은 파일은 읽지 않고 복원, 나머지만 파싱
+            Map<String, QuestCache.Entry> cached = readCache();
+            Map<String, FileStamp> cachedStamps = new HashMap<>(cached.size() * 2);
+            List<Loaded> loaded = new ArrayList<>(files.length);
+            List<File> dirty = new ArrayList<>();
+            for (File f : files) {
+                QuestCache.Entry e = cached.get(f.getName());
+                if (e != null && e.mtime() == f.lastModified() && e.size() == f.length()) {
+                    loaded.add(restore(f, e.mtime(), e.size(), e.hash(), e.def()));
+                } else {
+                    dirty.add(f);
+                    if (e != null) cachedStamps.put(f.getName(), new FileStamp(e.mtime(), e.size(), e.hash(), null));
+                }
+            }
+            int fromCache = loaded.size();
+            List<Loaded> parsed = loadAll(dirty, cachedStamps);
+            if (parsed == null) {
+                // 일부만 읽힌 결과로 교체 / 캐시 기록하지 않고 현재 스냅샷 유지
+                plugin.getLogger().warning("QuestEngine quest reload aborted, keeping " + cur.byId().size() + " loaded quests");
+                return;
+            }
+            for (Loaded l : parsed) {
+                loaded.add(l.unchanged()
+                        ? restore(l.file(), l.mtime(), l.size(), l.hash(), cached.get(l.file().getName()).def())
+                        : l);
+            }
+            long t2 = System.nanoTime();
+
+            for (Loaded l : loaded) {
+                String lid = l.def() == null ? null : l.def().id;
+                if (lid != null) nextById.put(lid, l.def());
+                nextFiles.put(l.file().getName(), new FileStamp(l.mtime(), l.size(), l.hash(), lid));
+            }
+
+            Set<String> touched = new HashSet<>(cur.byId().keySet());
+            touched.addAll(nextById.keySet());
+            swap(nextById, nextFiles, touched);
+            long t3 = System.nanoTime();
+
+            if (!dirty.isEmpty() || cached.size() != nextFiles.size()) writeCache();
+
+            plugin.getLogger().info("QuestEngine loaded " + nextById.size() + " quests from " + dir.getName()
+                    + " in " + ms(t0, t3) + "ms (scan " + ms(t0, t1) + "ms, parse " + ms(t1, t2)
+                    + "ms, index " + ms(t2, t3) + "ms, cached " + fromCache + "/" + files.length + ")");
         }
+    }
 
-        int count = 0;
+    /**
+     * 바뀐 파일만 다시 읽어 스냅샷 교체
+     * - mtime / 크기가 같아도 내용 해시를 비교 (같은 초 안에 같은 크기로 덮어쓴 저장도 감지)
+     * - 내용 해시가 같으면 (touch 등) 상태만 갱신
+     * - 추가 / 수정 / 삭제된 파일의 퀘스트만 교체
+     * - 제거를 먼저 모두 반영한 뒤 추가 (한 번에 다른 파일로 옮겨진 퀘스트가 지워지지 않게)
+     */
+    public ReloadResult reloadChanged() {
+        synchronized (reloadLock) {
+            Snapshot cur = snap;
+            Map<String, QuestDef> nextById = new HashMap<>(cur.byId());
+            Map<String, FileStamp> nextFiles = new HashMap<>(cur.files().size());
+            Set<String> touched = new HashSet<>();
+            int added = 0, changed = 0, removed = 0;
 
-        for (File f : files) {
-            try {
-                QuestDef q = QuestDef.loadFromFile(f);
-                if (q == null || q.id == null || q.id.isBlank()) {
-                    plugin.getLogger().warning("QuestEngine skipped invalid quest file: " + f.getName());
+            List<File> dirty = new ArrayList<>();
+            for (File f : listQuestFiles()) {
+                FileStamp old = cur.files().get(f.getName());
+                if (old != null && old.mtime() == f.lastModified() && old.size() == f.length() && sameContent(f, old)) {
+                    nextFiles.put(f.getName(), old);
+                } else {
+                    dirty.add(f);
+                }
+            }
+
+            List<Loaded> parsed = loadAll(dirty, cur.files());
+            if (parsed == null) {
+                plugin.getLogger().warning("QuestEngine quest reload aborted, keeping " + cur.byId().size() + " loaded quests");
+                return new ReloadResult(0, 0, 0);
+            }
+            Set<String> drop = new HashSet<>();
+            Map<String, QuestDef> put = new LinkedHashMap<>();
+            for (Loaded l : parsed) {
+                String name = l.file().getName();
+                FileStamp old = cur.files().get(name);
+                if (l.unchanged()) {
+                    nextFiles.put(name, new FileStamp(l.mtime(), l.size(), l.hash(), old.questId()));
                     continue;
                 }
 
-                /* 여기서 id를 항상 소문자로 저장 */
-                String lid = q.id.toLowerCase(Locale.ROOT);
-                byId.put(lid, q);
-                count++;
+                if (old != null && old.questId() != null) drop.add(old.questId());
+                String lid = l.def() == null ? null : l.def().id;
+                if (lid != null) put.put(lid, l.def());
+                nextFiles.put(name, new FileStamp(l.mtime(), l.size(), l.hash(), lid));
+                if (old == null) added++; else changed++;
+            }
 
-            } catch (Throwable t) {
-                plugin.getLogger().warning("QuestEngine failed to load quest " + f.getName() + ": " + t.getMessage());
+            // 읽기 실패한 기존 파일은 이전 상태 유지
+            for (File f : dirty) {
+                FileStamp old = cur.files().get(f.getName());
+                if (old != null) nextFiles.putIfAbsent(f.getName(), old);
             }
+
+            for (Map.Entry<String, FileStamp> e : cur.files().entrySet()) {
+                if (nextFiles.containsKey(e.getKey())) continue;
+                String qid = e.getValue().questId();
+                if (qid != null) drop.add(qid);
+                removed++;
+            }
+
+            for (String qid : drop) nextById.remove(qid);
+            nextById.putAll(put);
+            touched.addAll(drop);
+            touched.addAll(put.keySet());
+
+            ReloadResult result = new ReloadResult(added, changed, removed);
+            if (result.isEmpty()) {
+                // 상태(mtime)만 바뀐 경우 인덱스는 그대로 두고 파일 상태만 갱신
+                snap = new Snapshot(cur.byId(), cur.byOrdinal(), cur.eventIndex(), cur.chat(), cur.command(), cur.interact(), cur.graph(), Map.copyOf(nextFiles));
+                if (!dirty.isEmpty()) writeCache();
+                return result;
+            }
+
+            swap(nextById, nextFiles, touched);
+            writeCache();
+            plugin.getLogger().info("QuestEngine reloaded quests: +" + added + " ~" + changed + " -" + removed
+                    + " (" + nextById.size() + " total)");
+            return result;
         }
+    }
 
-        plugin.getLogger().info("QuestEngine loaded " + count + " quests from " + dir.getName());
+    /* mtime / 크기가 같은 파일의 내용이 이전 해시와 같은지 (읽기 실패는 바뀐 것으로 보고 loadAll 에 맡김) */
+    private boolean sameContent(File f, FileStamp old) {
+        byte[] bytes = read(f);
+        return bytes != null && hash64(bytes) == old.hash();
     }
 
-    /* event -> quests 맵 생성 */
-    public void rebuildEventMap() {
-        byEvent.clear();
+    private File[] listQuestFiles() {
+        File[] files = dir.listFiles((d, n) -> n.endsWith(".yml") || n.endsWith(".yaml"));
+        if (files == null) return new File[0];
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /* 파일 하나의 로드 결과 (unchanged: 내용 해시가 이전과 같아 파싱 생략) */
+    private record Loaded(File file, long mtime, long size, long hash, QuestDef def, boolean unchanged) {}
+
+    /**
+     * 파일 읽기 + 해시 + YAML 파싱 + QuestDef 컴파일을 fork-join 풀에서 병렬 수행
+     * previous 에 같은 해시가 있으면 파싱을 생략
+     * 결과 순서는 입력 순서와 동일
+     * 병렬 실행이 실패하면 같은 스레드에서 순차로 다시 읽음
+     * @return 로드 결과, 중단(인터럽트)되면 null (호출 측은 현재 스냅샷 유지)
+     */
+    private List<Loaded> loadAll(List<File> files, Map<String, FileStamp> previous) {
+        if (files.isEmpty()) return List.of();
+        if (files.size() == 1) return loadSerial(files, previous);
 
+        int threads = plugin.getConfig().getInt("performance.quest-load-threads", 0);
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+        threads = Math.max(1, Math.min(threads, files.size()));
+
+        ClassLoader loader = plugin.getClass().getClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("QuestEngine-QuestLoader-" + t.getPoolIndex());
+            t.setContextClassLoader(loader);
+            return t;
+        }, null, false);
+        try {
+            return pool.submit(() -> files.parallelStream()
+                    .map(f -> loadOne(f, previous))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            plugin.getLogger().warning("QuestEngine parallel quest load failed, retrying serially: " + e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return loadSerial(files, previous);
+    }
+
+    private List<Loaded> loadSerial(List<File> files, Map<String, FileStamp> previous) {
+        List<Loaded> out = new ArrayList<>(files.size());
+        try {
+            for (File f : files) {
+                Loaded l = loadOne(f, previous);
+                if (l != null) out.add(l);
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("QuestEngine serial quest load failed: " + e);
+            return null;
+        }
+        return out;
+    }
+
+    private Loaded loadOne(File f, Map<String, FileStamp> previous) {
+        long mtime = f.lastModified();
+        long size = f.length();
+        byte[] bytes = read(f);
+        if (bytes == null) return null;
+        long hash = hash64(bytes);
+
+        FileStamp old = previous.get(f.getName());
+        if (old != null && old.hash() == hash) return new Loaded(f, mtime, size, hash, null, true);
+        return new Loaded(f, mtime, size, hash, parse(f.getName(), bytes), false);
+    }
+
+    /* 캐시에서 꺼낸 QuestDef 복원 (GetterChain 등 런타임 객체는 다시 컴파일) */
+    private Loaded restore(File f, long mtime, long size, long hash, QuestDef def) {
+        if (def != null) compileCustom(def);
+        return new Loaded(f, mtime, size, hash, def, false);
+    }
+
+    private Map<String, QuestCache.Entry> readCache() {
+        if (cache == null) return Map.of();
+        try {
+            return cache.load();
+        } catch (Throwable t) {
+            plugin.getLogger().warning("QuestEngine ignored unreadable quest cache: " + t.getMessage());
+            return Map.of();
+        }
+    }
+
+    /* 현재 스냅샷을 캐시 파일로 기록 */
+    private void writeCache() {
+        if (cache == null) return;
+        Snapshot s = snap;
+        Map<String, QuestCache.Entry> entries = new LinkedHashMap<>(s.files().size() * 2);
+        for (Map.Entry<String, FileStamp> e : s.files().entrySet()) {
+            FileStamp st = e.getValue();
+            QuestDef def = st.questId() == null ? null : s.byId().get(st.questId());
+            entries.put(e.getKey(), new QuestCache.Entry(st.mtime(), st.size(), st.hash(), def));
+        }
+        try {
+            cache.save(entries);
+        } catch (Throwable t) {
+            plugin.getLogger().warning("QuestEngine failed to write quest cache: " + t.getMessage());
+        }
+    }
+
+    private static long ms(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000L;
+    }
+
+    private byte[] read(File f) {
+        try {
+            return Files.readAllBytes(f.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().warning("QuestEngine failed to read quest " + f.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private QuestDef parse(String fileName, byte[] bytes) {
+        try {
+            YamlConfiguration yml = new YamlConfiguration();
+            yml.loadFromString(new String(bytes, StandardCharsets.UTF_8));
+            QuestDef q = QuestDef.load(fileName, yml);
+            if (q == null || q.id == null || q.id.isBlank()) {
+                plugin.getLogger().warning("QuestEngine skipped invalid quest file: " + fileName);
+                return null;
+            }
+            compileCustom(q);
+            return q;
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().warning("QuestEngine failed to parse quest " + fileName + ": " + e.getMessage());
+        } catch (Throwable t) {
+            plugin.getLogger().warning("QuestEngine failed to load quest " + fileName + ": " + t.getMessage());
+        }
+        return null;
+    }
+
+    /* FNV-1a 64 */
+    private static long hash64(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /* custom_event_data 체인을 이벤트 클래스 기준으로 컴파일 (실패는 로드 시점에 경고) */
+    private void compileCustom(QuestDef q) {
+        String cls = q.eventClassName();
+        if (cls == null || q.custom == null) return;
+
+        Class<?> type;
+        try {
+            type = Class.forName(cls, false, plugin.getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            plugin.getLogger().warning("QuestEngine quest " + q.id + " event class not found: " + cls);
+            return;
+        }
+
+        for (String err : q.custom.compile(type)) {
+            plugin.getLogger().warning("QuestEngine quest " + q.id + " invalid capture " + err);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // 스냅샷 구성 / 교체
+    // ------------------------------------------------------------
+    private void swap(Map<String, QuestDef> byId, Map<String, FileStamp> files, Set<String> touched) {
+        snap = build(Collections.unmodifiableMap(byId), Map.copyOf(files));
+        for (String d : snap.graph().diagnostics()) {
+            plugin.getLogger().warning("QuestEngine " + d);
+        }
+        if (touched.isEmpty()) return;
+        Set<String> ids = Collections.unmodifiableSet(touched);
+        for (Consumer<Set<String>> l : swapListeners) {
+            try {
+                l.accept(ids);
+            } catch (Throwable t) {
+                plugin.getLogger().warning("QuestEngine reload listener failed: " + t.getMessage());
+            }
+        }
+    }
+
+    private static Snapshot build(Map<String, QuestDef> byId, Map<String, FileStamp> files) {
+        Map<Integer, List<QuestDef>> tmp = new HashMap<>();
+        QuestDef[] byOrdinal = new QuestDef[QuestOrdinals.size()];
         for (QuestDef q : byId.values()) {
-            if (q == null || q.event == null || q.event.isBlank()) continue;
+            if (q == null) continue;
+            if (q.ordinal >= 0 && q.ordinal < byOrdinal.length) byOrdinal[q.ordinal] = q;
+            if (q.eventId < 0) continue;
+            tmp.computeIfAbsent(q.eventId, k -> new ArrayList<>()).add(q);
+        }
 
-            String key = q.event.trim().toUpperCase(Locale.ROOT);
-            byEvent.computeIfAbsent(key, k -> new ArrayList<>()).add(q);
+        QuestDef[][] table = new QuestDef[EventTypeRegistry.size()][];
+        Arrays.fill(table, EMPTY);
+        for (Map.Entry<Integer, List<QuestDef>> e : tmp.entrySet()) {
+            table[e.getKey()] = e.getValue().toArray(EMPTY);
         }
 
-        for (Map.Entry<String, List<QuestDef>> e : byEvent.entrySet()) {
-            e.setValue(List.copyOf(e.getValue()));
+        return new Snapshot(byId, byOrdinal, table,
+                ChatTargetIndex.build(slot(table, EventTypeRegistry.PLAYER_CHAT)),
+                CommandTargetIndex.build(slot(table, EventTypeRegistry.PLAYER_COMMAND)),
+                InteractTargetIndex.build(slot(table, EventTypeRegistry.ENTITY_INTERACT)),
+                QuestGraph.build(byId),
+                files);
+    }
+
+    private static QuestDef[] slot(QuestDef[][] table, int eventId) {
+        return eventId >= 0 && eventId < table.length ? table[eventId] : EMPTY;
+    }
+
+    /* event -> quests 인덱스 재구성 (현재 퀘스트 그대로, 스냅샷 통째 교체) */
+    public void rebuildEventMap() {
+        synchronized (reloadLock) {
+            Snapshot cur = snap;
+            snap = build(cur.byId(), cur.files());
+            plugin.getLogger().info("QuestEngine event map built for " + cur.byId().size() + " quests");
         }
+    }
 
-        plugin.getLogger().info("QuestEngine event map built " + byEvent.size() + " event types");
+    /** 스냅샷 교체 후 변경된 퀘스트 id 를 받을 리스너 (리로드를 수행한 스레드에서 호출) */
+    public void addSwapListener(Consumer<Set<String>> listener) {
+        if (listener != null) swapListeners.add(listener);
     }
 
-    /* id 조회 통합 */
+    public File folder() {
+        return dir;
+    }
+
+    // ------------------------------------------------------------
+    // 조회
+    // ------------------------------------------------------------
+
+    /* id 조회 통합 (정규화된 id 는 문자열 변환 없이 바로 조회) */
     public QuestDef get(String id) {
         if (id == null) return null;
-        return byId.get(id.toLowerCase(Locale.ROOT));
+        Map<String, QuestDef> byId = snap.byId();
+        QuestDef q = byId.get(id);
+        return q != null ? q : byId.get(QuestOrdinals.normalize(id));
+    }
+
+    /* ordinal 조회 (핫패스) */
+    public QuestDef get(int ordinal) {
+        QuestDef[] arr = snap.byOrdinal();
+        return ordinal >= 0 && ordinal < arr.length ? arr[ordinal] : null;
     }
 
     /* byId 메서드는 get과 동일하게 통합 */
@@ -103,20 +499,43 @@ public final class QuestRepository {
 
     /* ids 반환 */
     public Set<String> ids() {
-        return Collections.unmodifiableSet(byId.keySet());
+        return snap.byId().keySet();
     }
 
-    /* 동일 이벤트를 가진 퀘스트 목록 조회 */
+    /* 동일 이벤트를 가진 퀘스트 목록 조회 (API 경계용) */
     public QuestDef[] byEvent(String eventKey) {
-        if (eventKey == null || eventKey.isBlank()) return new QuestDef[0];
-        List<QuestDef> list = byEvent.get(eventKey.trim().toUpperCase(Locale.ROOT));
-        if (list == null || list.isEmpty()) return new QuestDef[0];
-        return list.toArray(new QuestDef[0]);
+        if (eventKey == null || eventKey.isBlank()) return EMPTY;
+        return byEvent(EventTypeRegistry.lookup(eventKey));
+    }
+
+    /* eventId 로 조회 (핫패스, 반환 배열은 수정 금지) */
+    public QuestDef[] byEvent(int eventId) {
+        return slot(snap.eventIndex(), eventId);
+    }
+
+    /* PLAYER_CHAT 후보 필터 (메시지 한 번 스캔) */
+    public ChatTargetIndex chatIndex() {
+        return snap.chat();
+    }
+
+    /* PLAYER_COMMAND 후보 필터 (트라이 한 번 탐색) */
+    public CommandTargetIndex commandIndex() {
+        return snap.command();
+    }
+
+    /* NPC 상호작용 target-id -> 퀘스트 */
+    public InteractTargetIndex interactIndex() {
+        return snap.interact();
+    }
+
+    /* 체인 / 선행 퀘스트 그래프 (해석된 참조) */
+    public QuestGraph graph() {
+        return snap.graph();
     }
 
     /* 전체 퀘스트 */
     public Collection<QuestDef> all() {
-        return Collections.unmodifiableCollection(byId.values());
+        return snap.byId().values();
     }
 
     /* 퀘스트를 파일로 저장 */
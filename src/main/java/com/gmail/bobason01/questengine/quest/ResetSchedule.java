@@ -0,0 +1,355 @@
+package com.gmail.bobason01.questengine.quest;
+
+import java.time.*;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * ResetSchedule
+ * - QuestDef.Reset(policy, time) 을 컴파일한 초기화 경계 계산기
+ * - DAILY   : "HH:mm [zone]"
+ * - WEEKLY  : "[MON..SUN] HH:mm [zone]" (요일 생략 시 MON)
+ * - MONTHLY : "[1..31] HH:mm [zone]" (일 생략 시 1, 짧은 달은 말일로 보정)
+ * - CRON    : "분 시 일 월 요일 [zone]" (*, 목록, 범위, 스텝, JAN / MON 이름 지원)
+ * - 경계는 항상 벽시계(해당 타임존의 로컬 날짜/시각) 기준으로 계산 (서버 랙 / DST 에도 밀리지 않음)
+ * - epoch 는 now 직전 경계의 epoch 분 (경계를 지날 때마다 바뀌는 주기 번호)
+ */
+public final class ResetSchedule {
+
+    public enum Kind { DAILY, WEEKLY, MONTHLY, CRON }
+
+    // CRON 검색 범위 (이 안에 경계가 없으면 없는 것으로 간주)
+    private static final int CRON_SEARCH_DAYS = 366 * 5;
+
+    private final Kind kind;
+    private final ZoneId zone;
+    private final LocalTime at;
+    private final DayOfWeek weekday;
+    private final int monthDay;
+    private final Cron cron;
+    private final String key;
+
+    private ResetSchedule(Kind kind, ZoneId zone, LocalTime at, DayOfWeek weekday, int monthDay, Cron cron, String key) {
+        this.kind = kind;
+        this.zone = zone;
+        this.at = at;
+        this.weekday = weekday;
+        this.monthDay = monthDay;
+        this.cron = cron;
+        this.key = key;
+    }
+
+    /**
+     * 초기화 설정 컴파일
+     * @return 초기화 대상이 아니면 null
+     * @throws IllegalArgumentException 해석할 수 없는 policy / time
+     */
+    public static ResetSchedule compile(QuestDef.Reset reset, String defaultTime, ZoneId defaultZone) {
+        if (reset == null) return null;
+        String policy = reset.policy.toUpperCase(Locale.ROOT);
+        if (policy.isEmpty() || policy.equals("NONE")) return null;
+
+        Kind kind;
+        try {
+            kind = Kind.valueOf(policy);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("unknown reset policy '" + reset.policy + "'");
+        }
+
+        String[] tokens = reset.time.isEmpty() ? new String[0] : reset.time.trim().split("\\s+");
+        int n = tokens.length;
+        ZoneId zone = defaultZone;
+        if (n > 0 && tokens[n - 1].indexOf(':') < 0) {
+            ZoneId z = zoneOf(tokens[n - 1]);
+            if (z != null) {
+                zone = z;
+                n--;
+            }
+        }
+
+        String key;
+        switch (kind) {
+            case DAILY: {
+                if (n > 1) throw new IllegalArgumentException("DAILY expects 'HH:mm', got '" + reset.time + "'");
+                LocalTime t = parseTime(n == 1 ? tokens[0] : defaultTime);
+                key = "DAILY " + t + " " + zone;
+                return new ResetSchedule(kind, zone, t, null, 0, null, key);
+            }
+            case WEEKLY: {
+                if (n > 2) throw new IllegalArgumentException("WEEKLY expects '[DAY] HH:mm', got '" + reset.time + "'");
+                DayOfWeek dow = DayOfWeek.MONDAY;
+                String time = defaultTime;
+                for (int i = 0; i < n; i++) {
+                    if (tokens[i].indexOf(':') >= 0) time = tokens[i];
+                    else dow = dayOfWeek(tokens[i]);
+                }
+                LocalTime t = parseTime(time);
+                key = "WEEKLY " + dow + " " + t + " " + zone;
+                return new ResetSchedule(kind, zone, t, dow, 0, null, key);
+            }
+            case MONTHLY: {
+                if (n > 2) throw new IllegalArgumentException("MONTHLY expects '[DAY] HH:mm', got '" + reset.time + "'");
+                int day = 1;
+                String time = defaultTime;
+                for (int i = 0; i < n; i++) {
+                    if (tokens[i].indexOf(':') >= 0) {
+                        time = tokens[i];
+                        continue;
+                    }
+                    try {
+                        day = Integer.parseInt(tokens[i]);
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("invalid day of month '" + tokens[i] + "'");
+                    }
+                    if (day < 1 || day > 31) throw new IllegalArgumentException("invalid day of month '" + tokens[i] + "'");
+                }
+                LocalTime t = parseTime(time);
+                key = "MONTHLY " + day + " " + t + " " + zone;
+                return new ResetSchedule(kind, zone, t, null, day, null, key);
+            }
+            default: {
+                if (n != 5) throw new IllegalArgumentException("CRON expects 5 fields, got '" + reset.time + "'");
+                Cron c = Cron.parse(tokens);
+                key = "CRON " + String.join(" ", Arrays.copyOf(tokens, 5)) + " " + zone;
+                return new ResetSchedule(kind, zone, null, null, 0, c, key);
+            }
+        }
+    }
+
+    /** "HH:mm" 파싱 (잘못된 값은 00:00) */
+    public static LocalTime parseTime(String hhmm) {
+        int h = 0;
+        int m = 0;
+        if (hhmm != null) {
+            String[] parts = hhmm.trim().split(":");
+            try {
+                h = Integer.parseInt(parts[0].trim());
+                if (parts.length > 1) m = Integer.parseInt(parts[1].trim());
+            } catch (Throwable ignored) {
+            }
+        }
+        return LocalTime.of(Math.floorMod(h, 24), Math.floorMod(m, 60));
+    }
+
+    /** 설정의 타임존 문자열 해석 (비어 있거나 잘못되면 null) */
+    public static ZoneId zoneOf(String id) {
+        if (id == null || id.isBlank()) return null;
+        try {
+            return ZoneId.of(id.trim());
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private static DayOfWeek dayOfWeek(String s) {
+        String u = s.toUpperCase(Locale.ROOT);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().startsWith(u) && u.length() >= 3) return d;
+        }
+        throw new IllegalArgumentException("invalid day of week '" + s + "'");
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /** 같은 경계를 공유하는 퀘스트를 묶기 위한 정규화된 설명 */
+    public String key() {
+        return key;
+    }
+
+    // ------------------------------------------------------------
+    // 경계 계산
+    // ------------------------------------------------------------
+
+    /** now 이하의 가장 최근 경계 */
+    public ZonedDateTime previous(Instant now) {
+        LocalDate today = LocalDate.ofInstant(now, zone);
+        switch (kind) {
+            case DAILY: {
+                ZonedDateTime b = at(today);
+                return b.toInstant().isAfter(now) ? at(today.minusDays(1)) : b;
+            }
+            case WEEKLY: {
+                LocalDate d = today.with(TemporalAdjusters.previousOrSame(weekday));
+                ZonedDateTime b = at(d);
+                return b.toInstant().isAfter(now) ? at(d.minusWeeks(1)) : b;
+            }
+            case MONTHLY: {
+                YearMonth ym = YearMonth.from(today);
+                ZonedDateTime b = at(monthly(ym));
+                return b.toInstant().isAfter(now) ? at(monthly(ym.minusMonths(1))) : b;
+            }
+            default:
+                return cron.search(now, zone, false);
+        }
+    }
+
+    /** now 이후(초과)의 첫 경계 */
+    public ZonedDateTime next(Instant now) {
+        if (kind == Kind.CRON) return cron.search(now, zone, true);
+        ZonedDateTime prev = previous(now);
+        LocalDate d = prev.withZoneSameInstant(zone).toLocalDate();
+        switch (kind) {
+            case DAILY:
+                return at(d.plusDays(1));
+            case WEEKLY:
+                return at(d.plusWeeks(1));
+            default:
+                return at(monthly(YearMonth.from(d).plusMonths(1)));
+        }
+    }
+
+    /** now 가 속한 주기 번호 (직전 경계의 epoch 분, 경계가 없으면 0) */
+    public long epochAt(Instant now) {
+        ZonedDateTime prev = previous(now);
+        return prev == null ? 0L : prev.toEpochSecond() / 60L;
+    }
+
+    private ZonedDateTime at(LocalDate date) {
+        return ZonedDateTime.of(date, at, zone);
+    }
+
+    private LocalDate monthly(YearMonth ym) {
+        return ym.atDay(Math.min(monthDay, ym.lengthOfMonth()));
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    // ------------------------------------------------------------
+    // CRON (분 시 일 월 요일)
+    // ------------------------------------------------------------
+    private static final class Cron {
+        private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+        private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+        final BitSet minutes;
+        final BitSet hours;
+        final BitSet days;
+        final BitSet months;
+        final BitSet weekdays; // 0 = 일요일
+        final boolean anyDay;
+        final boolean anyWeekday;
+
+        private Cron(BitSet minutes, BitSet hours, BitSet days, BitSet months, BitSet weekdays,
+                     boolean anyDay, boolean anyWeekday) {
+            this.minutes = minutes;
+            this.hours = hours;
+            this.days = days;
+            this.months = months;
+            this.weekdays = weekdays;
+            this.anyDay = anyDay;
+            this.anyWeekday = anyWeekday;
+        }
+
+        static Cron parse(String[] f) {
+            BitSet weekdays = field(f[4], 0, 7, DAYS, 0);
+            if (weekdays.get(7)) {
+                weekdays.set(0);
+                weekdays.clear(7);
+            }
+            return new Cron(
+                    field(f[0], 0, 59, null, 0),
+                    field(f[1], 0, 23, null, 0),
+                    field(f[2], 1, 31, null, 0),
+                    field(f[3], 1, 12, MONTHS, 1),
+                    weekdays,
+                    f[2].equals("*") || f[2].equals("?"),
+                    f[4].equals("*") || f[4].equals("?"));
+        }
+
+        private static BitSet field(String spec, int min, int max, String[] names, int nameBase) {
+            BitSet bits = new BitSet(max + 1);
+            for (String part : spec.split(",")) {
+                int step = 1;
+                String range = part;
+                int slash = part.indexOf('/');
+                if (slash >= 0) {
+                    step = number(part.substring(slash + 1), names, nameBase);
+                    range = part.substring(0, slash);
+                    if (step <= 0) throw new IllegalArgumentException("invalid cron step in '" + spec + "'");
+                }
+                int lo;
+                int hi;
+                if (range.equals("*") || range.equals("?")) {
+                    lo = min;
+                    hi = max;
+                } else {
+                    int dash = range.indexOf('-');
+                    if (dash > 0) {
+                        lo = number(range.substring(0, dash), names, nameBase);
+                        hi = number(range.substring(dash + 1), names, nameBase);
+                    } else {
+                        lo = number(range, names, nameBase);
+                        hi = slash >= 0 ? max : lo;
+                    }
+                }
+                if (lo < min || hi > max || lo > hi) {
+                    throw new IllegalArgumentException("cron value out of range in '" + spec + "'");
+                }
+                for (int v = lo; v <= hi; v += step) bits.set(v);
+            }
+            return bits;
+        }
+
+        private static int number(String s, String[] names, int nameBase) {
+            String u = s.trim().toUpperCase(Locale.ROOT);
+            if (names != null) {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals(u)) return i + nameBase;
+                }
+            }
+            try {
+                return Integer.parseInt(u);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("invalid cron value '" + s + "'");
+            }
+        }
+
+        private boolean matches(LocalDate d) {
+            if (!months.get(d.getMonthValue())) return false;
+            boolean dom = days.get(d.getDayOfMonth());
+            boolean dow = weekdays.get(d.getDayOfWeek().getValue() % 7);
+            // 표준 cron: 일/요일이 둘 다 지정되면 OR
+            if (anyDay) return dow;
+            if (anyWeekday) return dom;
+            return dom || dow;
+        }
+
+        /** forward 면 now 초과 첫 경계, 아니면 now 이하 마지막 경계 (없으면 null) */
+        ZonedDateTime search(Instant now, ZoneId zone, boolean forward) {
+            LocalDate d = LocalDate.ofInstant(now, zone);
+            for (int i = 0; i < CRON_SEARCH_DAYS; i++, d = forward ? d.plusDays(1) : d.minusDays(1)) {
+                if (!matches(d)) continue;
+                ZonedDateTime hit = forward ? first(d, zone, now) : last(d, zone, now);
+                if (hit != null) return hit;
+            }
+            return null;
+        }
+
+        private ZonedDateTime first(LocalDate d, ZoneId zone, Instant after) {
+            for (int h = hours.nextSetBit(0); h >= 0; h = hours.nextSetBit(h + 1)) {
+                for (int m = minutes.nextSetBit(0); m >= 0; m = minutes.nextSetBit(m + 1)) {
+                    ZonedDateTime z = ZonedDateTime.of(d, LocalTime.of(h, m), zone);
+                    if (z.toInstant().isAfter(after)) return z;
+                }
+            }
+            return null;
+        }
+
+        private ZonedDateTime last(LocalDate d, ZoneId zone, Instant notAfter) {
+            for (int h = hours.previousSetBit(23); h >= 0; h = hours.previousSetBit(h - 1)) {
+                for (int m = minutes.previousSetBit(59); m >= 0; m = minutes.previousSetBit(m - 1)) {
+                    ZonedDateTime z = ZonedDateTime.of(d, LocalTime.of(h, m), zone);
+                    if (!z.toInstant().isAfter(notAfter)) return z;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.gmail.bobason01.questengine.quest;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.entity.EntityType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * TargetSet
+ * - 퀘스트 targets 를 로드 시점에 한 번 컴파일한 매처
+ * - Material / EntityType 은 EnumSet 으로 해석되어 매칭이 비트 테스트 한 번으로 끝남
+ * - 지원 토큰:
+ *     STONE              정확한 이름
+ *     *_ORE, DIAMOND_*   글롭 와일드카드 (* / ?)
+ *     #minecraft:logs    Bukkit 태그 (블록/아이템/엔티티 레지스트리)
+ *     !BEDROCK           제외 (다른 토큰보다 우선)
+ *     A|B|C              한 줄에 여러 토큰
+ * - 긍정 토큰이 하나도 없고 제외만 있으면 "제외 대상 외 전부" 로 해석
+ * - enum 에 없는 이름(CITIZENS_1, MYTHIC_xxx 등)은 문자열 집합 / 패턴으로 보관
+ */
+public final class TargetSet {
+
+    /** targets 가 비어 있는 퀘스트용: 모든 대상 허용 */
+    public static final TargetSet ANY = new TargetSet(true, false,
+            EnumSet.noneOf(Material.class), EnumSet.noneOf(EntityType.class),
+            Set.of(), List.of(), Set.of(), List.of());
+
+    private final boolean any;
+    private final boolean excludeOnly;
+    private final EnumSet<Material> materials;
+    private final EnumSet<EntityType> entities;
+    private final Set<String> names;
+    private final List<Pattern> namePatterns;
+    private final Set<String> excludedNames;
+    private final List<Pattern> excludedPatterns;
+
+    private TargetSet(boolean any,
+                      boolean excludeOnly,
+                      EnumSet<Material> materials,
+                      EnumSet<EntityType> entities,
+                      Set<String> names,
+                      List<Pattern> namePatterns,
+                      Set<String> excludedNames,
+                      List<Pattern> excludedPatterns) {
+        this.any = any;
+        this.excludeOnly = excludeOnly;
+        this.materials = materials;
+        this.entities = entities;
+        this.names = names;
+        this.namePatterns = namePatterns;
+        this.excludedNames = excludedNames;
+        this.excludedPatterns = excludedPatterns;
+    }
+
+    // ------------------------------------------------------------
+    // 컴파일
+    // ------------------------------------------------------------
+    public static TargetSet compile(List<String> targets) {
+        if (targets == null || targets.isEmpty()) return ANY;
+
+        EnumSet<Material> posMat = EnumSet.noneOf(Material.class);
+        EnumSet<Material> negMat = EnumSet.noneOf(Material.class);
+        EnumSet<EntityType> posEnt = EnumSet.noneOf(EntityType.class);
+        EnumSet<EntityType> negEnt = EnumSet.noneOf(EntityType.class);
+        Set<String> posNames = new HashSet<>();
+        Set<String> negNames = new HashSet<>();
+        List<Pattern> posPatterns = new ArrayList<>(2);
+        List<Pattern> negPatterns = new ArrayList<>(2);
+        boolean hasPositive = false;
+
+        for (String line : targets) {
+            if (line == null) continue;
+            for (String raw : line.split("\\|")) {
+                String tok = raw.trim();
+                if (tok.isEmpty()) continue;
+
+                boolean neg = tok.charAt(0) == '!';
+                if (neg) tok = tok.substring(1).trim();
+                if (tok.isEmpty()) continue;
+                if (!neg) hasPositive = true;
+
+                EnumSet<Material> mats = neg ? negMat : posMat;
+                EnumSet<EntityType> ents = neg ? negEnt : posEnt;
+
+                if (tok.charAt(0) == '#') {
+                    resolveTag(tok.substring(1), mats, ents);
+                    continue;
+                }
+
+                String up = tok.toUpperCase(Locale.ROOT);
+                if (up.indexOf('*') >= 0 || up.indexOf('?') >= 0) {
+                    Pattern p = glob(up);
+                    for (Material m : Material.values()) {
+                        if (!m.isLegacy() && p.matcher(m.name()).matches()) mats.add(m);
+                    }
+                    for (EntityType t : EntityType.values()) {
+                        if (p.matcher(t.name()).matches()) ents.add(t);
+                    }
+                    (neg ? negPatterns : posPatterns).add(p);
+                    continue;
+                }
+
+                Material m = Material.getMaterial(up);
+                if (m != null && !m.isLegacy()) mats.add(m);
+                try {
+                    ents.add(EntityType.valueOf(up));
+                } catch (IllegalArgumentException ignored) {}
+                (neg ? negNames : posNames).add(up);
+            }
+        }
+
+        if (!hasPositive) {
+            posMat = EnumSet.allOf(Material.class);
+            posEnt = EnumSet.allOf(EntityType.class);
+        }
+        posMat.removeAll(negMat);
+        posEnt.removeAll(negEnt);
+
+        boolean noExclusions = negNames.isEmpty() && negPatterns.isEmpty() && negMat.isEmpty() && negEnt.isEmpty();
+        if (!hasPositive && noExclusions) return ANY;
+
+        return new TargetSet(false, !hasPositive,
+                posMat, posEnt,
+                Set.copyOf(posNames), List.copyOf(posPatterns),
+                Set.copyOf(negNames), List.copyOf(negPatterns));
+    }
+
+    private static void resolveTag(String key, EnumSet<Material> mats, EnumSet<EntityType> ents) {
+        NamespacedKey nk = NamespacedKey.fromString(key.toLowerCase(Locale.ROOT));
+        if (nk == null) return;
+        try {
+            Tag<Material> blocks = Bukkit.getTag(Tag.REGISTRY_BLOCKS, nk, Material.class);
+            if (blocks != null) mats.addAll(blocks.getValues());
+        } catch (Throwable ignored) {}
+        try {
+            Tag<Material> items = Bukkit.getTag(Tag.REGISTRY_ITEMS, nk, Material.class);
+            if (items != null) mats.addAll(items.getValues());
+        } catch (Throwable ignored) {}
+        try {
+            Tag<EntityType> types = Bukkit.getTag(Tag.REGISTRY_ENTITY_TYPES, nk, EntityType.class);
+            if (types != null) ents.addAll(types.getValues());
+        } catch (Throwable ignored) {}
+    }
+
+    private static Pattern glob(String up) {
+        StringBuilder sb = new StringBuilder(up.length() + 8);
+        int start = 0;
+        for (int i = 0; i < up.length(); i++) {
+            char c = up.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > start) sb.append(Pattern.quote(up.substring(start, i)));
+                sb.append(c == '*' ? ".*" : ".");
+                start = i + 1;
+            }
+        }
+        if (start < up.length()) sb.append(Pattern.quote(up.substring(start)));
+        return Pattern.compile(sb.toString());
+    }
+
+    // ------------------------------------------------------------
+    // 바이너리 직렬화 (QuestCache)
+    // - enum 은 이름으로 저장해 서버 버전이 바뀌어도 순서에 의존하지 않음
+    // - 태그 / 글롭 해석 결과를 그대로 저장하므로 복원 시 재해석 없음
+    // ------------------------------------------------------------
+    void write(DataOutput out) throws IOException {
+        out.writeBoolean(any);
+        if (any) return;
+        out.writeBoolean(excludeOnly);
+        out.writeInt(materials.size());
+        for (Material m : materials) out.writeUTF(m.name());
+        out.writeInt(entities.size());
+        for (EntityType t : entities) out.writeUTF(t.name());
+        writeStrings(out, names);
+        writePatterns(out, namePatterns);
+        writeStrings(out, excludedNames);
+        writePatterns(out, excludedPatterns);
+    }
+
+    static TargetSet read(DataInput in) throws IOException {
+        if (in.readBoolean()) return ANY;
+        boolean excludeOnly = in.readBoolean();
+
+        EnumSet<Material> mats = EnumSet.noneOf(Material.class);
+        for (int i = in.readInt(); i > 0; i--) {
+            Material m = Material.getMaterial(in.readUTF());
+            if (m != null) mats.add(m);
+        }
+        EnumSet<EntityType> ents = EnumSet.noneOf(EntityType.class);
+        for (int i = in.readInt(); i > 0; i--) {
+            String n = in.readUTF();
+            try {
+                ents.add(EntityType.valueOf(n));
+            } catch (IllegalArgumentException ignored) {}
+        }
+        Set<String> names = readStrings(in);
+        List<Pattern> patterns = readPatterns(in);
+        Set<String> exNames = readStrings(in);
+        List<Pattern> exPatterns = readPatterns(in);
+        return new TargetSet(false, excludeOnly, mats, ents, names, patterns, exNames, exPatterns);
+    }
+
+    private static void writeStrings(DataOutput out, Set<String> set) throws IOException {
+        out.writeInt(set.size());
+        for (String s : set) out.writeUTF(s);
+    }
+
+    private static Set<String> readStrings(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n == 0) return Set.of();
+        Set<String> set = new HashSet<>(n * 2);
+        for (int i = 0; i < n; i++) set.add(in.readUTF());
+        return Set.copyOf(set);
+    }
+
+    private static void writePatterns(DataOutput out, List<Pattern> list) throws IOException {
+        out.writeInt(list.size());
+        for (Pattern p : list) out.writeUTF(p.pattern());
+    }
+
+    private static List<Pattern> readPatterns(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n == 0) return List.of();
+        List<Pattern> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) list.add(Pattern.compile(in.readUTF()));
+        return List.copyOf(list);
+    }
+
+    // ------------------------------------------------------------
+    // 매칭
+    // ------------------------------------------------------------
+    public boolean isAny() {
+        return any;
+    }
+
+    public boolean test(Material material) {
+        if (any) return true;
+        return material != null && materials.contains(material);
+    }
+
+    public boolean test(EntityType type) {
+        if (any) return true;
+        return type != null && entities.contains(type);
+    }
+
+    /**
+     * enum 으로 해석되지 않는 식별자 매칭 (CITIZENS_1, MYTHIC_xxx 등)
+     * 호출 측은 대문자 키를 넘기는 것을 권장 (아니면 변환 비용 발생)
+     */
+    public boolean testName(String name) {
+        if (any) return true;
+        if (name == null || name.isEmpty()) return false;
+        String up = name;
+        if (!names.contains(up) && !excludedNames.contains(up)) up = name.toUpperCase(Locale.ROOT);
+
+        if (excludedNames.contains(up)) return false;
+        for (Pattern p : excludedPatterns) if (p.matcher(up).matches()) return false;
+
+        if (excludeOnly) return true;
+        if (names.contains(up)) return true;
+        for (Pattern p : namePatterns) if (p.matcher(up).matches()) return true;
+        return false;
+    }
+}
@@ -1,12 +1,15 @@
 package com.gmail.bobason01.questengine.runtime;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.quest.GetterChain;
 import com.gmail.bobason01.questengine.quest.QuestDef;
 import com.gmail.bobason01.questengine.quest.QuestRepository;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.PluginManager;
 
@@ -17,6 +20,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * DynamicEventListener
  * - QuestEngine의 동적 이벤트 감지 시스템
  * - 커스텀 이벤트 자동 리스너 등록
+ * - 클래스별 라우팅(eventId + 플레이어 접근자 + 캡처 접근자)을 등록 시 한 번만 계산
+ * - player_variable 이 다른 퀘스트는 접근자별 묶음으로 나눠 각자 자기 경로의 플레이어로 처리
+ *   이벤트마다 문자열 처리 / 리플렉션 탐색 없음
+ * - 컨텍스트에는 variables_to_capture 로 선언된 변수만 채움
  */
 public final class DynamicEventListener {
 
@@ -25,6 +32,8 @@ public final class DynamicEventListener {
 
     private final Set<String> listened = ConcurrentHashMap.newKeySet();
     private final List<Listener> activeListeners = new ArrayList<>();
+    /* 현재 훅에 반영된 퀘스트 id (리로드 영향 판단용) */
+    private final Set<String> hookedQuests = ConcurrentHashMap.newKeySet();
 
     private static final Map<String, Class<? extends Event>> CLASS_CACHE = new ConcurrentHashMap<>();
 
@@ -32,31 +41,127 @@ public final class DynamicEventListener {
         this.plugin = plugin;
         this.engine = engine;
         Bukkit.getScheduler().runTaskLater(plugin, () -> registerAll(repo), 1L);
+
+        // 동적 이벤트 퀘스트가 바뀐 리로드에서만 훅 재구성 (메인 스레드)
+        repo.addSwapListener(ids -> {
+            boolean affected = false;
+            for (String id : ids) {
+                QuestDef def = repo.get(id);
+                if (hookedQuests.contains(id) || (def != null && def.eventClassName() != null)) {
+                    affected = true;
+                    break;
+                }
+            }
+            if (!affected) return;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                unregisterAll();
+                registerAll(repo);
+            });
+        });
     }
 
     public void unregisterAll() {
         for (Listener l : activeListeners) HandlerList.unregisterAll(l);
         activeListeners.clear();
         listened.clear();
+        hookedQuests.clear();
+    }
+
+    /**
+     * 플레이어 접근자가 같은 퀘스트 묶음
+     * - player: 이벤트 -> 플레이어 접근자 (CustomEventData.playerGetter, 없으면 기본 접근자)
+     * - quests: 이 접근자로 처리할 퀘스트 (묶음이 하나뿐이면 null = 이벤트의 전체 퀘스트)
+     */
+    private record PlayerGroup(GetterChain player, QuestDef[] quests) {}
+
+    /**
+     * 클래스 하나에 대한 라우팅 정보 (등록 시 한 번 계산)
+     * - eventId: QuestRepository 인덱스 키
+     * - groups: 플레이어 접근자별 퀘스트 묶음
+     * - captures: 해당 클래스를 쓰는 퀘스트들이 선언한 변수 -> 컴파일된 접근자
+     */
+    private record Route(int eventId, PlayerGroup[] groups, Map<String, GetterChain> captures) {
+
+        void dispatch(Engine engine, Event event) {
+            if (groups.length == 1) {
+                if (groups[0].player().apply(event) instanceof Player p) {
+                    engine.handle(p, eventId, event, this::context);
+                }
+                return;
+            }
+            // 여러 묶음이 같은 플레이어를 가리키면 후보를 합쳐 한 번만 처리 (플레이어 + eventId 중복 제거)
+            Map<Player, List<QuestDef>> byPlayer = new LinkedHashMap<>(4);
+            for (PlayerGroup g : groups) {
+                if (g.player().apply(event) instanceof Player p) {
+                    byPlayer.computeIfAbsent(p, k -> new ArrayList<>()).addAll(Arrays.asList(g.quests()));
+                }
+            }
+            for (Map.Entry<Player, List<QuestDef>> e : byPlayer.entrySet()) {
+                engine.handle(e.getKey(), eventId, event, this::context, e.getValue().toArray(new QuestDef[0]));
+            }
+        }
+
+        /* 선언된 변수만 채운 컨텍스트 (선언이 하나도 없으면 기존 리플렉션 매핑) */
+        Map<String, Object> context(Event event) {
+            if (captures.isEmpty()) return EventContextMapper.map(event);
+            Map<String, Object> ctx = new HashMap<>(captures.size() * 2);
+            for (Map.Entry<String, GetterChain> e : captures.entrySet()) {
+                Object v = e.getValue().apply(event);
+                if (v != null) ctx.put(e.getKey(), v);
+            }
+            return ctx;
+        }
     }
 
+    /* playerGetter 가 없거나 해석되지 않을 때 순서대로 시도 */
+    private static final String[] DEFAULT_PLAYER_GETTERS = {"getPlayer()", "getWhoClicked()", "getEntity()"};
+
     private void registerAll(QuestRepository repo) {
         final PluginManager pm = Bukkit.getPluginManager();
         int hooked = 0;
 
+        // 클래스명 -> 그 클래스를 듣는 퀘스트들
+        Map<String, List<QuestDef>> byClass = new LinkedHashMap<>();
         for (String id : repo.ids()) {
             QuestDef def = repo.get(id);
             if (def == null) continue;
-            String evt = def.event;
-            if (evt == null || !evt.contains(".")) continue;
+            String evt = def.eventClassName();
+            if (evt == null) continue;
+            byClass.computeIfAbsent(evt, k -> new ArrayList<>()).add(def);
+            hookedQuests.add(def.id);
+        }
+
+        for (Map.Entry<String, List<QuestDef>> entry : byClass.entrySet()) {
+            String evt = entry.getKey();
+            List<QuestDef> defs = entry.getValue();
             if (!listened.add(evt.intern())) continue;
 
             try {
                 Class<? extends Event> eventClass = loadEventClass(evt);
-                if (eventClass == null) continue;
+                if (eventClass == null) {
+                    plugin.getLogger().warning("[QuestEngine] Unknown event class " + evt + " (quest " + defs.get(0).id + ")");
+                    continue;
+                }
+
+                Map<String, GetterChain> captures = new LinkedHashMap<>();
+                for (QuestDef def : defs) {
+                    if (def.custom == null) continue;
+                    for (Map.Entry<String, GetterChain> c : def.custom.compiledCaptures().entrySet()) {
+                        captures.putIfAbsent(c.getKey(), c.getValue());
+                    }
+                }
+
+                PlayerGroup[] groups = groupByPlayer(evt, eventClass, defs);
+                if (groups.length == 0) {
+                    plugin.getLogger().warning("[QuestEngine] No player accessor for " + evt + ", skipped");
+                    continue;
+                }
+                Route route = new Route(defs.get(0).eventId, groups,
+                        captures.isEmpty() ? Map.of() : Collections.unmodifiableMap(captures));
 
                 EventExecutor exec = (listener, event) -> {
-                    if (eventClass.isInstance(event)) engine.handleDynamic(event);
+                    if (!eventClass.isInstance(event)) return;
+                    route.dispatch(engine, event);
                 };
 
                 Listener listener = new Listener() {};
@@ -72,6 +177,55 @@ public final class DynamicEventListener {
         plugin.getLogger().info("[QuestEngine] Hooked " + hooked + " custom quest events");
     }
 
+    /* 퀘스트마다 로드 시 컴파일된 player_variable, 없으면 기본 접근자로 묶음 구성 (경로 문자열이 키) */
+    private PlayerGroup[] groupByPlayer(String evt, Class<? extends Event> eventClass, List<QuestDef> defs) {
+        Map<String, GetterChain> chains = new LinkedHashMap<>();
+        Map<String, List<QuestDef>> members = new LinkedHashMap<>();
+        GetterChain fallback = null;
+        boolean fallbackResolved = false;
+        boolean skipped = false;
+        for (QuestDef def : defs) {
+            GetterChain chain = def.custom == null ? null : def.custom.compiledPlayer();
+            String key = chain == null ? "" : def.custom.playerGetter.trim();
+            if (chain == null) {
+                if (!fallbackResolved) {
+                    fallback = defaultPlayerGetter(eventClass);
+                    fallbackResolved = true;
+                }
+                if (fallback == null) {
+                    plugin.getLogger().warning("[QuestEngine] No player accessor for " + evt + " (quest " + def.id + "), set player_variable");
+                    skipped = true;
+                    continue;
+                }
+                chain = fallback;
+            }
+            chains.putIfAbsent(key, chain);
+            members.computeIfAbsent(key, k -> new ArrayList<>()).add(def);
+        }
+
+        PlayerGroup[] out = new PlayerGroup[chains.size()];
+        int i = 0;
+        for (Map.Entry<String, GetterChain> e : chains.entrySet()) {
+            out[i++] = new PlayerGroup(e.getValue(), members.get(e.getKey()).toArray(new QuestDef[0]));
+        }
+        // 묶음이 하나고 빠진 퀘스트가 없으면 이벤트의 전체 퀘스트로 처리 (기존 경로 그대로)
+        if (out.length == 1 && !skipped) out[0] = new PlayerGroup(out[0].player(), null);
+        return out;
+    }
+
+    private static GetterChain defaultPlayerGetter(Class<? extends Event> eventClass) {
+        // 사망 이벤트는 죽은 엔티티가 아니라 처치자 기준
+        if (EntityDeathEvent.class.isAssignableFrom(eventClass)) {
+            return GetterChain.compile(eventClass, "getEntity().getKiller()");
+        }
+        for (String getter : DEFAULT_PLAYER_GETTERS) {
+            try {
+                return GetterChain.compile(eventClass, getter);
+            } catch (IllegalArgumentException ignored) {}
+        }
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     private static Class<? extends Event> loadEventClass(String name) {
         try {
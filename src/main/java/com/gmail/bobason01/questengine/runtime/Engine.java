@@ -4,22 +4,20 @@ import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.action.ActionExecutor;
 import com.gmail.bobason01.questengine.progress.PlayerData;
 import com.gmail.bobason01.questengine.progress.ProgressRepository;
+import com.gmail.bobason01.questengine.quest.EventTypeRegistry;
 import com.gmail.bobason01.questengine.quest.QuestDef;
+import com.gmail.bobason01.questengine.quest.QuestGraph;
 import com.gmail.bobason01.questengine.quest.QuestRepository;
 import com.gmail.bobason01.questengine.util.Msg;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
-import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.block.BlockPlaceEvent;
-import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -37,12 +35,16 @@ public final class Engine {
     private final ExecutorService worker;
 
     private final Map<UUID, Object> playerLocks = new ConcurrentHashMap<UUID, Object>();
-    private final Map<UUID, Map<String, Long>> recentEventWindow = new ConcurrentHashMap<UUID, Map<String, Long>>();
-    private final Map<String, TargetMatcher> matchers = new ConcurrentHashMap<String, TargetMatcher>();
+    // eventId -> 매처 (없으면 WILDCARD)
+    private volatile TargetMatcher[] matchers = new TargetMatcher[0];
+
+    static final TargetMatcher WILDCARD = (player, event, def) -> true;
 
     private final Map<String, BoolCacheEntry> conditionCache = new ConcurrentHashMap<String, BoolCacheEntry>();
     private final long conditionTtlNanos;
-    private final long dedupWindowNanos;
+    private final EventDedup dedup;
+    private final ResetScheduler resets;
+    private final PartyProgress partyProgress;
 
     private static final long NPC_ARM_WINDOW_NANOS = 2_000_000_000L;
 
@@ -66,9 +68,13 @@ public final class Engine {
 
     private final Map<UUID, NpcArmState> npcArm = new ConcurrentHashMap<UUID, NpcArmState>();
 
+    /**
+     * 이벤트별 타깃 매처
+     * def.targetSet 은 로드 시 컴파일되어 있으므로 구현은 이벤트에서 값을 꺼내 비트 테스트만 수행
+     */
     @FunctionalInterface
     public interface TargetMatcher {
-        boolean test(Player player, Event event, String target);
+        boolean test(Player player, Event event, QuestDef def);
     }
 
     public Engine(
@@ -90,11 +96,19 @@ public final class Engine {
         this.conditionTtlNanos = ttlMs * 1_000_000L;
 
         long dedupMs = Math.max(3L, plugin.getConfig().getLong("performance.event-dedup-window-ms", 10L));
-        this.dedupWindowNanos = dedupMs * 1_000_000L;
+        this.dedup = new EventDedup(dedupMs, plugin.getConfig().getConfigurationSection("performance.event-dedup-windows"));
 
         installDefaultMatchers();
-        scheduleDailyResets();
-        preloadInternalQuests();
+        this.partyProgress = new PartyProgress(plugin, progress, this::handleQuestCompleteOnMain);
+        this.resets = new ResetScheduler(plugin, quests);
+        resets.rebuild();
+
+        // 퀘스트 리로드 후 조건 결과 / 컴파일된 액션 무효화
+        quests.addSwapListener(ids -> {
+            conditionCache.clear();
+            actions.invalidate(ids);
+            resets.rebuild();
+        });
     }
 
     public QuestRepository quests() {
@@ -119,7 +133,6 @@ public final class Engine {
 
     public void refreshEventCache() {
         quests.reload();
-        quests.rebuildEventMap();
     }
 
     public void shutdown() {
@@ -127,17 +140,31 @@ public final class Engine {
             worker.shutdownNow();
         } catch (Throwable ignored) {
         }
+        resets.close();
         conditionCache.clear();
         playerLocks.clear();
-        recentEventWindow.clear();
-        matchers.clear();
+        dedup.clear();
+        matchers = new TargetMatcher[0];
         npcArm.clear();
     }
 
+    /** 접속한 플레이어의 진행 세션 시작 */
+    public void attachPlayer(Player player) {
+        if (player == null) return;
+        progress.join(player.getUniqueId(), player.getName());
+    }
+
+    /** 퇴장한 플레이어의 런타임 상태 회수 */
+    public void releasePlayer(UUID uid) {
+        if (uid == null) return;
+        dedup.forget(uid);
+        npcArm.remove(uid);
+        progress.quit(uid);
+    }
+
     public void startQuest(Player p, String questId) {
         if (p == null || questId == null) return;
-        String id = questId.toLowerCase(Locale.ROOT);
-        QuestDef q = quests.get(id);
+        QuestDef q = quests.get(questId);
         if (q == null) {
             p.sendMessage(msg.pref("invalid_args"));
             return;
@@ -152,12 +179,17 @@ public final class Engine {
         UUID uid = player.getUniqueId();
         String name = player.getName();
 
-        if (progress.isCompleted(uid, name, def.id)) {
+        if (progress.isLoading(uid)) {
+            player.sendMessage(msg.pref("progress_loading"));
+            return;
+        }
+
+        if (progress.isCompleted(uid, name, def.ordinal)) {
             player.sendMessage(msg.pref("quest_no_repeat").replace("%quest_name%", def.name));
             return;
         }
 
-        if (progress.isActive(uid, name, def.id)) {
+        if (progress.isActive(uid, name, def.ordinal)) {
             player.sendMessage(msg.pref("quest_already_active"));
             return;
         }
@@ -167,7 +199,7 @@ public final class Engine {
             return;
         }
 
-        progress.start(uid, name, def.id);
+        progress.start(uid, name, def.ordinal);
         actions.runAll(def, "accept", player);
         actions.runAll(def, "start", player);
         player.sendMessage(msg.pref("quest_started").replace("%quest_name%", def.name));
@@ -175,9 +207,7 @@ public final class Engine {
 
     public void cancelQuest(Player p, String questId) {
         if (p == null || questId == null) return;
-        String id = questId.toLowerCase(Locale.ROOT);
-        QuestDef q = quests.get(id);
-        cancelQuest(p, q);
+        cancelQuest(p, quests.get(questId));
     }
 
     public void cancelQuest(Player player, QuestDef def) {
@@ -186,12 +216,12 @@ public final class Engine {
         UUID uid = player.getUniqueId();
         String name = player.getName();
 
-        if (!progress.isActive(uid, name, def.id)) {
+        if (!progress.isActive(uid, name, def.ordinal)) {
             player.sendMessage(msg.pref("quest_not_active"));
             return;
         }
 
-        progress.cancel(uid, name, def.id);
+        progress.cancel(uid, name, def.ordinal);
         actions.runAll(def, "cancel", player);
         player.sendMessage(msg.pref("quest_canceled").replace("%quest_name%", def.name));
     }
@@ -212,8 +242,8 @@ public final class Engine {
         if (player == null || def == null) return;
         UUID uid = player.getUniqueId();
         String name = player.getName();
-        if (!progress.isActive(uid, name, def.id)) return;
-        progress.cancel(uid, name, def.id);
+        if (!progress.isActive(uid, name, def.ordinal)) return;
+        progress.cancel(uid, name, def.ordinal);
         player.sendMessage(msg.pref("quest_stopped").replace("%quest_name%", def.name));
     }
 
@@ -237,7 +267,7 @@ public final class Engine {
         UUID uid = player.getUniqueId();
         String name = player.getName();
 
-        progress.complete(uid, name, def.id, def.points);
+        progress.complete(uid, name, def.ordinal, def.points);
         actions.runAll(def, "success", player);
         player.sendMessage(msg.pref("quest_completed").replace("%quest_name%", def.name));
         runCompletionFlow(player, def);
@@ -288,38 +318,74 @@ public final class Engine {
         if (player == null || targetKey == null || targetKey.isEmpty()) return;
         Map<String, Object> ctx = new HashMap<String, Object>();
         ctx.put("target_id", targetKey);
-        handleCustom(player, "ENTITY_INTERACT", ctx);
+        handleCustom(player, EventTypeRegistry.ENTITY_INTERACT, ctx);
     }
 
     public void handle(Player player, String eventName, Event event) {
         if (player == null || eventName == null) return;
+        handle(player, EventTypeRegistry.lookup(eventName), event);
+    }
 
-        String key = normalizeEventKey(eventName);
-        QuestDef[] list = quests.byEvent(key);
+    public void handle(Player player, int eventId, Event event) {
+        handle(player, eventId, event, EventContextMapper::map);
+    }
+
+    /**
+     * context: 중복 제거를 통과한 뒤에만 호출되는 컨텍스트 생성기
+     * (동적 이벤트는 선언된 캡처 변수만 채우는 생성기를 넘김)
+     */
+    public void handle(Player player, int eventId, Event event, Function<Event, Map<String, Object>> context) {
+        if (player == null) return;
+
+        QuestDef[] list = quests.byEvent(eventId);
         if (list.length == 0) return;
 
+        // 채팅/명령어는 인덱스로 후보를 먼저 좁힘 (타깃 비교는 여기서 끝남)
+        if (eventId == EventTypeRegistry.PLAYER_CHAT && event instanceof AsyncPlayerChatEvent ce) {
+            list = quests.chatIndex().match(ce.getMessage());
+            if (list.length == 0) return;
+        } else if (eventId == EventTypeRegistry.PLAYER_COMMAND && event instanceof PlayerCommandPreprocessEvent ce) {
+            list = quests.commandIndex().match(ce.getMessage());
+            if (list.length == 0) return;
+        }
+
+        handle(player, eventId, event, context, list);
+    }
+
+    /**
+     * 후보 퀘스트를 호출 측이 정한 경우 (동적 이벤트에서 플레이어 접근자가 다른 퀘스트 묶음별로 호출)
+     * 같은 이벤트에서 같은 플레이어로는 한 번만 호출해야 함 (중복 제거 키가 플레이어 + eventId)
+     */
+    public void handle(Player player, int eventId, Event event, Function<Event, Map<String, Object>> context, QuestDef[] list) {
+        if (player == null || list == null || list.length == 0) return;
+
         UUID uid = player.getUniqueId();
-        if (isDedup(uid, key)) return;
+        if (isDedup(uid, eventId)) return;
 
-        Map<String, Object> ctx = EventContextMapper.map(event);
+        Map<String, Object> ctx = context.apply(event);
         Object lock = playerLocks.computeIfAbsent(uid, k -> new Object());
 
+        QuestDef[] candidates = list;
         worker.execute(() -> {
             synchronized (lock) {
-                processEventInternal(player, key, event, ctx, list);
+                processEventInternal(player, eventId, event, ctx, candidates);
             }
         });
     }
 
     public void handleCustom(Player player, String eventKey, Map<String, Object> ctx) {
         if (player == null || eventKey == null) return;
+        handleCustom(player, EventTypeRegistry.lookup(eventKey), ctx);
+    }
+
+    public void handleCustom(Player player, int eventId, Map<String, Object> ctx) {
+        if (player == null) return;
 
-        String key = normalizeEventKey(eventKey);
-        QuestDef[] list = quests.byEvent(key);
+        QuestDef[] list = quests.byEvent(eventId);
         if (list.length == 0) return;
 
         UUID uid = player.getUniqueId();
-        if (isDedup(uid, key)) return;
+        if (isDedup(uid, eventId)) return;
 
         if (ctx == null) ctx = Collections.emptyMap();
         Map<String, Object> finalCtx = ctx;
@@ -327,10 +393,10 @@ public final class Engine {
 
         worker.execute(() -> {
             synchronized (lock) {
-                if ("ENTITY_INTERACT".equalsIgnoreCase(key)) {
-                    processNpcInteract(player, finalCtx, list);
+                if (eventId == EventTypeRegistry.ENTITY_INTERACT) {
+                    processNpcInteract(player, finalCtx);
                 } else {
-                    processCustomInternal(player, key, finalCtx, list);
+                    processCustomInternal(player, finalCtx, list);
                 }
             }
         });
@@ -343,79 +409,45 @@ public final class Engine {
         handleCustom(player, key, ctx);
     }
 
-    public void handleDynamic(Event event) {
-        if (event == null) return;
-
-        Player player = EventContextMapper.extractPlayer(event);
-        if (player == null) {
-            if (event instanceof EntityDeathEvent) {
-                EntityDeathEvent de = (EntityDeathEvent) event;
-                if (de.getEntity().getKiller() != null) {
-                    player = de.getEntity().getKiller();
-                }
-            }
-        }
-        if (player == null) return;
-
-        String key = guessEventKeyFromClass(event.getClass().getSimpleName());
-        QuestDef[] list = quests.byEvent(key);
-        if (list.length == 0) return;
-
-        UUID uid = player.getUniqueId();
-        if (isDedup(uid, key)) return;
-
-        Map<String, Object> ctx = EventContextMapper.map(event);
-        Object lock = playerLocks.computeIfAbsent(uid, k -> new Object());
-
-        Player finalPlayer = player;
-        worker.execute(() -> {
-            synchronized (lock) {
-                processEventInternal(finalPlayer, key, event, ctx, list);
-            }
-        });
-    }
-
     public void completeQuest(Player player, String questId) {
         if (player == null || questId == null) return;
-        String id = questId.toLowerCase(Locale.ROOT);
-
-        QuestDef def = quests.byId(id);
+        QuestDef def = quests.get(questId);
         if (def == null) return;
 
         PlayerData data = progress.get(player.getUniqueId());
-        if (data == null || !data.isActive(id)) return;
+        if (data == null || !data.isActive(def.ordinal)) return;
 
-        data.complete(id, def.points);
+        progress.complete(player.getUniqueId(), player.getName(), def.ordinal, def.points);
         progress.save(data);
 
         actions.run(def, "success", player);
 
-        if (def.nextQuestOnComplete != null && !def.nextQuestOnComplete.isEmpty()) {
-            QuestDef next = quests.byId(def.nextQuestOnComplete);
-            if (next != null) startQuest(player, next.id);
-        }
+        QuestDef next = quests.graph().chainNext(def);
+        if (next != null) startQuest(player, next);
 
         player.sendMessage(msg.pref("quest_completed")
                 .replace("%quest_name%", def.name));
     }
 
-    private void processEventInternal(Player player, String eventKey, Event event, Map<String, Object> ctx, QuestDef[] list) {
+    private void processEventInternal(Player player, int eventId, Event event, Map<String, Object> ctx, QuestDef[] list) {
         UUID uid = player.getUniqueId();
+        // 진행 정보 로드 전 이벤트는 버림 (저장소를 기다리지 않음)
+        if (progress.isLoading(uid)) return;
         String name = player.getName();
 
-        TargetMatcher matcher = matchers.get(eventKey.toLowerCase(Locale.ROOT));
-        if (matcher == null) matcher = matchers.get("*");
+        TargetMatcher matcher = matcherFor(eventId);
+        boolean interact = eventId == EventTypeRegistry.ENTITY_INTERACT;
 
         List<Runnable> pending = new ArrayList<Runnable>();
 
         for (QuestDef def : list) {
             if (def == null) continue;
 
-            boolean active = progress.isActive(uid, name, def.id);
+            boolean active = progress.isActive(uid, name, def.ordinal);
 
             if (!active) {
                 if (def.startMode == QuestDef.StartMode.AUTO || def.startMode == QuestDef.StartMode.PUBLIC || def.startMode == QuestDef.StartMode.NPC) {
-                    if (eventKey.equalsIgnoreCase("ENTITY_INTERACT")) {
+                    if (interact) {
                         continue;
                     }
                     if (!checkTargetMatch(player, event, matcher, def)) {
@@ -424,7 +456,7 @@ public final class Engine {
                     if (!checkConditions(player, event, ctx, def.condStart)) {
                         continue;
                     }
-                    progress.start(uid, name, def.id);
+                    progress.start(uid, name, def.ordinal);
                     actions.runAll(def, "accept", player);
                     actions.runAll(def, "start", player);
                     player.sendMessage(msg.pref("quest_started").replace("%quest_name%", def.name));
@@ -439,10 +471,9 @@ public final class Engine {
             }
 
             if (checkAnyFail(player, event, ctx, def.condFail)) {
-                final String qid = def.id;
                 pending.add(() -> {
                     actions.runAll(def, "fail", player);
-                    progress.cancel(uid, name, qid);
+                    progress.cancel(uid, name, def.ordinal);
                 });
                 continue;
             }
@@ -451,7 +482,12 @@ public final class Engine {
                 continue;
             }
 
-            int value = progress.addProgress(uid, name, def.id, 1);
+            if (PartyProgress.shares(def)) {
+                partyProgress.add(player, def);
+                continue;
+            }
+
+            int value = progress.addProgress(uid, name, def.ordinal, 1);
             if (value >= def.amount) {
                 pending.add(() -> handleQuestCompleteOnMain(player, def));
             }
@@ -469,21 +505,21 @@ public final class Engine {
         }
     }
 
-    private void processCustomInternal(Player player, String eventKey, Map<String, Object> ctx, QuestDef[] list) {
+    private void processCustomInternal(Player player, Map<String, Object> ctx, QuestDef[] list) {
         UUID uid = player.getUniqueId();
+        if (progress.isLoading(uid)) return;
         String name = player.getName();
 
         List<Runnable> pending = new ArrayList<Runnable>();
 
         for (QuestDef def : list) {
             if (def == null) continue;
-            if (!progress.isActive(uid, name, def.id)) continue;
+            if (!progress.isActive(uid, name, def.ordinal)) continue;
 
             if (checkAnyFail(player, null, ctx, def.condFail)) {
-                final String qid = def.id;
                 pending.add(() -> {
                     actions.runAll(def, "fail", player);
-                    progress.cancel(uid, name, qid);
+                    progress.cancel(uid, name, def.ordinal);
                 });
                 continue;
             }
@@ -507,8 +543,9 @@ public final class Engine {
         }
     }
 
-    private void processNpcInteract(Player player, Map<String, Object> ctx, QuestDef[] list) {
+    private void processNpcInteract(Player player, Map<String, Object> ctx) {
         UUID uid = player.getUniqueId();
+        if (progress.isLoading(uid)) return;
         String name = player.getName();
 
         String targetId = String.valueOf(ctx.get("target_id"));
@@ -516,31 +553,14 @@ public final class Engine {
         targetId = targetId.trim();
         if (targetId.isEmpty()) return;
 
-        QuestDef candidate = null;
-
-        for (QuestDef def : list) {
-            if (def == null) continue;
-            if (def.startMode != QuestDef.StartMode.PUBLIC && def.startMode != QuestDef.StartMode.NPC) continue;
-
-            boolean matched;
-            if (!def.hasTarget()) {
-                matched = true;
-            } else {
-                matched = def.matchesTarget(targetId);
-            }
-            if (!matched) continue;
-
-            candidate = def;
-            break;
-        }
-
+        QuestDef candidate = quests.interactIndex().first(targetId);
         if (candidate == null) return;
 
         long now = System.nanoTime();
         NpcArmState arm = npcArm.get(uid);
 
-        boolean active = progress.isActive(uid, name, candidate.id);
-        boolean completed = progress.isCompleted(uid, name, candidate.id);
+        boolean active = progress.isActive(uid, name, candidate.ordinal);
+        boolean completed = progress.isCompleted(uid, name, candidate.ordinal);
 
         if (arm != null && arm.questId.equalsIgnoreCase(candidate.id) && arm.until > now) {
             if (!completed) {
@@ -557,7 +577,7 @@ public final class Engine {
             if (!checkConditions(player, null, ctx, candidate.condStart)) {
                 return;
             }
-            progress.start(uid, name, candidate.id);
+            progress.start(uid, name, candidate.ordinal);
             actions.runAll(candidate, "accept", player);
             actions.runAll(candidate, "start", player);
             player.sendMessage(msg.pref("quest_started").replace("%quest_name%", candidate.name));
@@ -571,17 +591,19 @@ public final class Engine {
         String name = player.getName();
 
         actions.runAll(def, "success", player);
-        progress.complete(uid, name, def.id, def.points);
+        progress.complete(uid, name, def.ordinal, def.points);
         player.sendMessage(msg.pref("quest_completed").replace("%quest_name%", def.name));
 
         runCompletionFlow(player, def);
     }
 
     private void runCompletionFlow(Player player, QuestDef def) {
-        String nextId = resolveNextId(def);
+        QuestGraph.Node link = quests.graph().node(def);
 
-        if (nextId != null && !nextId.isEmpty()) {
-            QuestDef next = quests.byId(nextId);
+        // 자기 자신으로 이어지는 체인은 아래 repeat 처리에 맡김
+        // 순환(A -> B -> A)에 포함된 퀘스트는 자동 연결하지 않고 체인 종료로 처리 (로드 시 경고)
+        if (link != null && link.nextId() != null && link.next() != def) {
+            QuestDef next = link.cyclic() ? null : link.next();
             if (next != null) {
                 if (isBoardQuest(next)) {
                     player.sendMessage(
@@ -609,8 +631,8 @@ public final class Engine {
                 );
             } else {
                 Supplier<Boolean> started = () -> {
-                    if (progress.isActive(player.getUniqueId(), player.getName(), def.id)) return Boolean.FALSE;
-                    progress.start(player.getUniqueId(), player.getName(), def.id);
+                    if (progress.isActive(player.getUniqueId(), player.getName(), def.ordinal)) return Boolean.FALSE;
+                    progress.start(player.getUniqueId(), player.getName(), def.ordinal);
                     actions.runAll(def, "restart", player);
                     actions.runAll(def, "repeat", player);
                     return Boolean.TRUE;
@@ -620,29 +642,6 @@ public final class Engine {
         }
     }
 
-    private String resolveNextId(QuestDef def) {
-        if (def == null) return null;
-
-        if (def.nextQuestOnComplete != null && !def.nextQuestOnComplete.isEmpty()) {
-            return def.nextQuestOnComplete;
-        }
-
-        if (def.actions != null) {
-            List<String> list = def.actions.get("next");
-            if (list != null && !list.isEmpty()) {
-                String raw = list.get(0);
-                if (raw != null) {
-                    String s = raw.trim();
-                    if (!s.isEmpty()) {
-                        int sp = s.indexOf(' ');
-                        return sp > 0 ? s.substring(0, sp) : s;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
     private boolean isBoardQuest(QuestDef def) {
         return def != null && def.isPublic;
     }
@@ -684,167 +683,32 @@ public final class Engine {
         return val;
     }
 
-    private boolean isDedup(UUID uid, String key) {
-        long now = System.nanoTime();
-        Map<String, Long> m = recentEventWindow.computeIfAbsent(uid, k -> new ConcurrentHashMap<String, Long>());
-        Long last = m.get(key);
-        if (last != null && now - last < dedupWindowNanos) return true;
-        m.put(key, now);
-        return false;
+    private boolean isDedup(UUID uid, int eventId) {
+        return dedup.isDuplicate(uid, eventId);
     }
 
-    private boolean checkTargetMatch(Player player, Event event, TargetMatcher matcher, QuestDef def) {
-        if (!def.hasTarget()) return true;
-        if (matcher == null) return true;
-        for (String t : def.targets) {
-            if (matcher.test(player, event, t)) {
-                return true;
-            }
-        }
-        return false;
+    private TargetMatcher matcherFor(int eventId) {
+        TargetMatcher[] table = matchers;
+        if (eventId < 0 || eventId >= table.length) return WILDCARD;
+        TargetMatcher m = table[eventId];
+        return m == null ? WILDCARD : m;
     }
 
-    private void installDefaultMatchers() {
-        matchers.put("*", (player, event, target) -> true);
-
-        matchers.put("block_break", (player, event, target) -> {
-            if (!(event instanceof BlockBreakEvent)) return false;
-            BlockBreakEvent be = (BlockBreakEvent) event;
-            if (target == null || target.isEmpty()) return true;
-            return tokenAnyMatch(be.getBlock().getType().name(), target);
-        });
-
-        matchers.put("block_place", (player, event, target) -> {
-            if (!(event instanceof BlockPlaceEvent)) return false;
-            BlockPlaceEvent bp = (BlockPlaceEvent) event;
-            if (target == null || target.isEmpty()) return true;
-            return tokenAnyMatch(bp.getBlockPlaced().getType().name(), target);
-        });
-
-        matchers.put("entity_kill", (player, event, target) -> {
-            if (!(event instanceof EntityDeathEvent)) return false;
-            EntityDeathEvent de = (EntityDeathEvent) event;
-            if (target == null || target.isEmpty()) return true;
-            return tokenAnyMatch(de.getEntity().getType().name(), target);
-        });
-
-        matchers.put("entity_interact", TargetMatchers.ENTITY_INTERACT_MATCHER);
-
-        matchers.put("player_command", (player, event, target) -> {
-            if (!(event instanceof PlayerCommandPreprocessEvent)) return false;
-            PlayerCommandPreprocessEvent ce = (PlayerCommandPreprocessEvent) event;
-            if (target == null || target.isEmpty()) return true;
-            return ce.getMessage().toLowerCase(Locale.ROOT).startsWith("/" + target.toLowerCase(Locale.ROOT));
-        });
-
-        matchers.put("player_chat", (player, event, target) -> {
-            if (!(event instanceof AsyncPlayerChatEvent)) return false;
-            AsyncPlayerChatEvent ce = (AsyncPlayerChatEvent) event;
-            if (target == null || target.isEmpty()) return true;
-            return ce.getMessage().toLowerCase(Locale.ROOT).contains(target.toLowerCase(Locale.ROOT));
-        });
-    }
-
-    private static boolean tokenAnyMatch(String value, String target) {
-        String v = value.toUpperCase(Locale.ROOT);
-        String[] parts = target.split("\\|");
-        for (String tok : parts) {
-            tok = tok.trim();
-            if (tok.isEmpty()) continue;
-            boolean neg = tok.charAt(0) == '!';
-            if (neg) tok = tok.substring(1).trim();
-            String up = tok.toUpperCase(Locale.ROOT);
-            boolean eq = v.equals(up);
-            if (neg && eq) return false;
-            if (!neg && eq) return true;
-        }
-        return false;
+    private void registerMatcher(int id, TargetMatcher matcher) {
+        if (id < 0 || matcher == null) return;
+        TargetMatcher[] cur = matchers;
+        TargetMatcher[] next = Arrays.copyOf(cur, Math.max(cur.length, Math.max(id + 1, EventTypeRegistry.size())));
+        next[id] = matcher;
+        matchers = next;
     }
 
-    private void preloadInternalQuests() {
-        try {
-            quests.reload();
-            quests.rebuildEventMap();
-        } catch (Throwable t) {
-            plugin.getLogger().warning("[QuestEngine] Internal quest load failed: " + t.getMessage());
-        }
-    }
-
-    private void scheduleDailyResets() {
-        Map<String, List<String>> timeToQuestIds = new HashMap<String, List<String>>();
-        String defaultTime = plugin.getConfig().getString("reset.default-time", "04:00");
-
-        for (String id : quests.ids()) {
-            QuestDef def = quests.byId(id);
-            if (def == null || def.reset == null) continue;
-            if (!"DAILY".equalsIgnoreCase(def.reset.policy)) continue;
-            String at = (def.reset.time == null || def.reset.time.isEmpty()) ? defaultTime : def.reset.time;
-            List<String> list = timeToQuestIds.computeIfAbsent(at, k -> new ArrayList<String>());
-            list.add(id);
-        }
-
-        for (Map.Entry<String, List<String>> e : timeToQuestIds.entrySet()) {
-            String time = e.getKey();
-            long delayMs = millisUntil(time);
-            long periodMs = 24L * 60L * 60L * 1000L;
-            List<String> copy = Collections.unmodifiableList(new ArrayList<String>(e.getValue()));
-
-            Bukkit.getScheduler().runTaskTimerAsynchronously(
-                    plugin,
-                    () -> {
-                        for (Player p : Bukkit.getOnlinePlayers()) {
-                            UUID uid = p.getUniqueId();
-                            String name = p.getName();
-                            for (String qid : copy) {
-                                progress.reset(uid, name, qid);
-                            }
-                        }
-                        plugin.getLogger().info("[QuestEngine] Daily reset done at " + time);
-                    },
-                    delayMs / 50L,
-                    periodMs / 50L
-            );
-        }
-    }
-
-    private long millisUntil(String hhmm) {
-        String[] parts = hhmm.split(":");
-        int h = 0;
-        int m = 0;
-        try {
-            h = Integer.parseInt(parts[0]);
-            if (parts.length > 1) m = Integer.parseInt(parts[1]);
-        } catch (Throwable ignored) {
-        }
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime next = now.withHour(h).withMinute(m).withSecond(0).withNano(0);
-        if (!next.isAfter(now)) next = next.plusDays(1);
-        return Duration.between(now, next).toMillis();
-    }
-
-    private String normalizeEventKey(String key) {
-        if (key == null) return "";
-        return key.trim().toUpperCase(Locale.ROOT);
+    private boolean checkTargetMatch(Player player, Event event, TargetMatcher matcher, QuestDef def) {
+        if (!def.hasTarget()) return true;
+        if (matcher == null) return true;
+        return matcher.test(player, event, def);
     }
 
-    private String guessEventKeyFromClass(String simpleName) {
-        if (simpleName == null) return "";
-        String k = simpleName;
-
-        if (k.endsWith("Event")) k = k.substring(0, k.length() - "Event".length());
-
-        if (k.equalsIgnoreCase("PlayerInteractEntity")) return "ENTITY_INTERACT";
-        if (k.equalsIgnoreCase("PlayerDropItem")) return "ITEM_DROP";
-        if (k.equalsIgnoreCase("PlayerPickupItem")) return "ITEM_PICKUP";
-        if (k.equalsIgnoreCase("EntityDeath")) return "MOBKILLING";
-
-        k = k.replace("MythicMob", "MYTHICMOBS_")
-                .replace("Player", "PLAYER_")
-                .replace("Entity", "ENTITY_")
-                .replace("Block", "BLOCK_")
-                .replace("Inventory", "INVENTORY_")
-                .replace("Item", "ITEM_");
-
-        return k.toUpperCase(Locale.ROOT);
+    private void installDefaultMatchers() {
+        TargetMatchers.installDefaults(this::registerMatcher);
     }
 }
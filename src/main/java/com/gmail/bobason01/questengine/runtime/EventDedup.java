@@ -0,0 +1,102 @@
+package com.gmail.bobason01.questengine.runtime;
+
+import com.gmail.bobason01.questengine.quest.EventTypeRegistry;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * EventDedup
+ * - 플레이어별 고정 크기 타임스탬프 테이블 (eventId 인덱스)
+ * - 박싱 없는 long 슬롯 + CAS 갱신으로 락 없이 중복 판정
+ * - 이벤트 키별 개별 윈도우 지원 (0 이면 해당 키는 중복 제거 안 함)
+ * - 퇴장 시 forget() 으로 회수
+ */
+final class EventDedup {
+
+    private final Map<UUID, AtomicLongArray> slots = new ConcurrentHashMap<>();
+    private final long defaultWindowNanos;
+    private volatile long[] windowNanos = new long[0];
+
+    /**
+     * @param defaultWindowMs 기본 윈도우 (performance.event-dedup-window-ms)
+     * @param perKey          키별 윈도우 섹션 (performance.event-dedup-windows), null 허용
+     */
+    EventDedup(long defaultWindowMs, ConfigurationSection perKey) {
+        this.defaultWindowNanos = defaultWindowMs * 1_000_000L;
+        if (perKey != null) {
+            for (String key : perKey.getKeys(false)) {
+                setWindow(key, Math.max(0L, perKey.getLong(key, 0L)));
+            }
+        }
+    }
+
+    /** 특정 이벤트 키의 윈도우(ms) 지정 */
+    void setWindow(String eventKey, long windowMs) {
+        int id = EventTypeRegistry.register(eventKey);
+        if (id < 0) return;
+        synchronized (this) {
+            long[] cur = windowNanos;
+            long[] next;
+            if (cur.length <= id) {
+                next = Arrays.copyOf(cur, Math.max(id + 1, EventTypeRegistry.size()));
+                Arrays.fill(next, cur.length, next.length, -1L);
+            } else {
+                next = cur.clone();
+            }
+            next[id] = windowMs * 1_000_000L;
+            windowNanos = next;
+        }
+    }
+
+    private long windowOf(int eventId) {
+        long[] w = windowNanos;
+        if (eventId < w.length && w[eventId] >= 0L) return w[eventId];
+        return defaultWindowNanos;
+    }
+
+    /**
+     * 윈도우 안에 같은 이벤트가 이미 처리되었으면 true
+     * 아니면 현재 시각을 기록하고 false
+     */
+    boolean isDuplicate(UUID uid, int eventId) {
+        if (uid == null || eventId < 0) return false;
+        long window = windowOf(eventId);
+        if (window <= 0L) return false;
+
+        AtomicLongArray table = tableFor(uid, eventId);
+        long now = System.nanoTime();
+        while (true) {
+            long last = table.get(eventId);
+            if (last != 0L && now - last < window) return true;
+            if (table.compareAndSet(eventId, last, now)) return false;
+        }
+    }
+
+    private AtomicLongArray tableFor(UUID uid, int eventId) {
+        AtomicLongArray table = slots.get(uid);
+        if (table != null && table.length() > eventId) return table;
+        return slots.compute(uid, (k, cur) -> {
+            int size = Math.max(eventId + 1, EventTypeRegistry.size());
+            if (cur != null && cur.length() >= size) return cur;
+            AtomicLongArray grown = new AtomicLongArray(size);
+            if (cur != null) {
+                for (int i = 0; i < cur.length(); i++) grown.set(i, cur.get(i));
+            }
+            return grown;
+        });
+    }
+
+    /** 플레이어 퇴장 시 슬롯 회수 */
+    void forget(UUID uid) {
+        if (uid != null) slots.remove(uid);
+    }
+
+    void clear() {
+        slots.clear();
+    }
+}
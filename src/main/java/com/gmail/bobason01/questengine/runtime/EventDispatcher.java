@@ -1,11 +1,10 @@
 package com.gmail.bobason01.questengine.runtime;
 
+import com.gmail.bobason01.questengine.quest.EventTypeRegistry;
 import io.lumine.mythic.bukkit.BukkitAPIHelper;
 import io.lumine.mythic.bukkit.events.MythicMobDeathEvent;
 import io.lumine.mythic.bukkit.events.MythicMobSpawnEvent;
 import io.lumine.mythic.core.mobs.ActiveMob;
-import net.citizensnpcs.api.CitizensAPI;
-import net.citizensnpcs.api.npc.NPC;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -16,7 +15,6 @@ import org.bukkit.event.entity.*;
 import org.bukkit.event.inventory.*;
 import org.bukkit.event.player.*;
 import org.bukkit.event.world.ChunkLoadEvent;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.plugin.Plugin;
 
 import java.util.Map;
@@ -43,125 +41,137 @@ public final class EventDispatcher implements Listener {
         this.mythicAPI = hasMythic ? new BukkitAPIHelper() : null;
 
         Bukkit.getPluginManager().registerEvents(this, plugin);
+        if (hasCitizens) {
+            NpcInteractBridge npcBridge = new NpcInteractBridge();
+            Bukkit.getPluginManager().registerEvents(npcBridge, plugin);
+            npcBridge.prime();
+        }
         plugin.getLogger().info("[QuestEngine] EventDispatcher fully registered (Citizens:" + hasCitizens + ", MythicMobs:" + hasMythic + ")");
     }
 
-    private void handle(Player player, String key, Event event) {
+    private void handle(Player player, int eventId, Event event) {
         if (player == null) return;
-        engine.handle(player, key, event);
+        engine.handle(player, eventId, event);
     }
 
     // ------------------------------------------------------------------------
     // BLOCK EVENTS
     // ------------------------------------------------------------------------
     @EventHandler(ignoreCancelled = true)
-    public void onBlockBreak(BlockBreakEvent e) { handle(e.getPlayer(), "BLOCK_BREAK", e); }
+    public void onBlockBreak(BlockBreakEvent e) { handle(e.getPlayer(), EventTypeRegistry.BLOCK_BREAK, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onBlockPlace(BlockPlaceEvent e) { handle(e.getPlayer(), "BLOCK_PLACE", e); }
+    public void onBlockPlace(BlockPlaceEvent e) { handle(e.getPlayer(), EventTypeRegistry.BLOCK_PLACE, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onBlockFertilize(BlockFertilizeEvent e) { handle(e.getPlayer(), "BLOCK_FERTILIZING", e); }
+    public void onBlockFertilize(BlockFertilizeEvent e) { handle(e.getPlayer(), EventTypeRegistry.BLOCK_FERTILIZING, e); }
 
     @EventHandler(ignoreCancelled = true)
     public void onBlockBurn(BlockBurnEvent e) {
-        for (Player p : e.getBlock().getWorld().getPlayers()) handle(p, "BLOCK_BURN", e);
+        for (Player p : e.getBlock().getWorld().getPlayers()) handle(p, EventTypeRegistry.BLOCK_BURN, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onBlockExplode(BlockExplodeEvent e) {
-        for (Player p : e.getBlock().getWorld().getPlayers()) handle(p, "BLOCK_EXPLODE", e);
+        for (Player p : e.getBlock().getWorld().getPlayers()) handle(p, EventTypeRegistry.BLOCK_EXPLODE, e);
     }
 
     // ------------------------------------------------------------------------
     // ITEM / INVENTORY EVENTS
     // ------------------------------------------------------------------------
     @EventHandler(ignoreCancelled = true)
-    public void onItemConsume(PlayerItemConsumeEvent e) { handle(e.getPlayer(), "ITEM_CONSUME", e); }
+    public void onItemConsume(PlayerItemConsumeEvent e) { handle(e.getPlayer(), EventTypeRegistry.ITEM_CONSUME, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onItemBreak(PlayerItemBreakEvent e) { handle(e.getPlayer(), "ITEM_BREAK", e); }
+    public void onItemBreak(PlayerItemBreakEvent e) { handle(e.getPlayer(), EventTypeRegistry.ITEM_BREAK, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onItemDamage(PlayerItemDamageEvent e) { handle(e.getPlayer(), "ITEM_DAMAGE", e); }
+    public void onItemDamage(PlayerItemDamageEvent e) { handle(e.getPlayer(), EventTypeRegistry.ITEM_DAMAGE, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onItemMend(PlayerItemMendEvent e) { handle(e.getPlayer(), "ITEM_MENDING", e); }
+    public void onItemMend(PlayerItemMendEvent e) { handle(e.getPlayer(), EventTypeRegistry.ITEM_MENDING, e); }
 
     @EventHandler(ignoreCancelled = true)
     public void onItemPickup(EntityPickupItemEvent e) {
-        if (e.getEntity() instanceof Player p) handle(p, "ITEM_PICKUP", e);
+        if (e.getEntity() instanceof Player p) handle(p, EventTypeRegistry.ITEM_PICKUP, e);
     }
 
     @EventHandler(ignoreCancelled = true)
-    public void onItemDrop(PlayerDropItemEvent e) { handle(e.getPlayer(), "ITEM_DROP", e); }
+    public void onItemDrop(PlayerDropItemEvent e) { handle(e.getPlayer(), EventTypeRegistry.ITEM_DROP, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onCraft(CraftItemEvent e) { handle((Player) e.getWhoClicked(), "ITEM_CRAFT", e); }
+    public void onCraft(CraftItemEvent e) { handle((Player) e.getWhoClicked(), EventTypeRegistry.ITEM_CRAFT, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onEnchant(EnchantItemEvent e) { handle(e.getEnchanter(), "ITEM_ENCHANT", e); }
+    public void onEnchant(EnchantItemEvent e) { handle(e.getEnchanter(), EventTypeRegistry.ITEM_ENCHANT, e); }
 
     @EventHandler(ignoreCancelled = true)
     public void onAnvilRepair(PrepareAnvilEvent e) {
-        if (e.getView().getPlayer() instanceof Player p) handle(p, "ITEM_REPAIR", e);
+        if (e.getView().getPlayer() instanceof Player p) handle(p, EventTypeRegistry.ITEM_REPAIR, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onSmithing(PrepareSmithingEvent e) {
-        if (e.getView().getPlayer() instanceof Player p) handle(p, "SMITHING", e);
+        if (e.getView().getPlayer() instanceof Player p) handle(p, EventTypeRegistry.SMITHING, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onBrew(BrewEvent e) {
-        for (Player p : e.getBlock().getWorld().getPlayers()) handle(p, "BREWING", e);
+        for (Player p : e.getBlock().getWorld().getPlayers()) handle(p, EventTypeRegistry.BREWING, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onInventoryClick(InventoryClickEvent e) {
-        if (e.getWhoClicked() instanceof Player p) handle(p, "ITEM_MOVE", e);
+        if (e.getWhoClicked() instanceof Player p) handle(p, EventTypeRegistry.ITEM_MOVE, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onInventoryOpen(InventoryOpenEvent e) {
-        if (e.getPlayer() instanceof Player p) handle(p, "INVENTORY_OPEN", e);
+        if (e.getPlayer() instanceof Player p) handle(p, EventTypeRegistry.INVENTORY_OPEN, e);
     }
 
     // ------------------------------------------------------------------------
     // PLAYER CORE EVENTS
     // ------------------------------------------------------------------------
-    @EventHandler public void onJoin(PlayerJoinEvent e) { handle(e.getPlayer(), "PLAYER_PRE_JOIN", e); }
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent e) {
+        engine.attachPlayer(e.getPlayer());
+        handle(e.getPlayer(), EventTypeRegistry.PLAYER_PRE_JOIN, e);
+    }
 
-    @EventHandler public void onQuit(PlayerQuitEvent e) { handle(e.getPlayer(), "PLAYER_LEAVE", e); }
+    @EventHandler public void onQuit(PlayerQuitEvent e) {
+        handle(e.getPlayer(), EventTypeRegistry.PLAYER_LEAVE, e);
+        engine.releasePlayer(e.getPlayer().getUniqueId());
+    }
 
-    @EventHandler public void onRespawn(PlayerRespawnEvent e) { handle(e.getPlayer(), "PLAYER_RESPAWN", e); }
+    @EventHandler public void onRespawn(PlayerRespawnEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_RESPAWN, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onChat(AsyncPlayerChatEvent e) { handle(e.getPlayer(), "PLAYER_CHAT", e); }
+    public void onChat(AsyncPlayerChatEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_CHAT, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onCommand(PlayerCommandPreprocessEvent e) { handle(e.getPlayer(), "PLAYER_COMMAND", e); }
+    public void onCommand(PlayerCommandPreprocessEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_COMMAND, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onMove(PlayerMoveEvent e) { handle(e.getPlayer(), "PLAYER_WALK", e); }
+    public void onMove(PlayerMoveEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_WALK, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onTeleport(PlayerTeleportEvent e) { handle(e.getPlayer(), "PLAYER_TELEPORT", e); }
+    public void onTeleport(PlayerTeleportEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_TELEPORT, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onBedEnter(PlayerBedEnterEvent e) { handle(e.getPlayer(), "PLAYER_BED_ENTER", e); }
+    public void onBedEnter(PlayerBedEnterEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_BED_ENTER, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onSwap(PlayerSwapHandItemsEvent e) { handle(e.getPlayer(), "PLAYER_SWAP_HAND", e); }
+    public void onSwap(PlayerSwapHandItemsEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_SWAP_HAND, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onExpChange(PlayerExpChangeEvent e) { handle(e.getPlayer(), "PLAYER_EXP_GAIN", e); }
+    public void onExpChange(PlayerExpChangeEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_EXP_GAIN, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onLevelChange(PlayerLevelChangeEvent e) { handle(e.getPlayer(), "PLAYER_LEVELUP", e); }
+    public void onLevelChange(PlayerLevelChangeEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_LEVELUP, e); }
 
     @EventHandler(ignoreCancelled = true)
-    public void onArmor(PlayerItemHeldEvent e) { handle(e.getPlayer(), "PLAYER_ARMOR", e); }
+    public void onArmor(PlayerItemHeldEvent e) { handle(e.getPlayer(), EventTypeRegistry.PLAYER_ARMOR, e); }
 
     // ------------------------------------------------------------------------
     // ENTITY EVENTS
@@ -169,20 +179,20 @@ public final class EventDispatcher implements Listener {
     @EventHandler(ignoreCancelled = true)
     public void onEntityDeath(EntityDeathEvent e) {
         if (e.getEntity().getKiller() != null)
-            handle(e.getEntity().getKiller(), "MOBKILLING", e);
+            handle(e.getEntity().getKiller(), EventTypeRegistry.MOBKILLING, e);
     }
 
     @EventHandler(ignoreCancelled = true)
-    public void onEntityTame(EntityTameEvent e) { handle((Player) e.getOwner(), "TAMING", e); }
+    public void onEntityTame(EntityTameEvent e) { handle((Player) e.getOwner(), EventTypeRegistry.TAMING, e); }
 
     @EventHandler(ignoreCancelled = true)
     public void onEntityBreed(EntityBreedEvent e) {
-        if (e.getBreeder() instanceof Player p) handle(p, "BREEDING", e);
+        if (e.getBreeder() instanceof Player p) handle(p, EventTypeRegistry.BREEDING, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onEntityDamage(EntityDamageByEntityEvent e) {
-        if (e.getDamager() instanceof Player p) handle(p, "DEAL_DAMAGE", e);
+        if (e.getDamager() instanceof Player p) handle(p, EventTypeRegistry.DEAL_DAMAGE, e);
     }
 
     // ------------------------------------------------------------------------
@@ -195,17 +205,16 @@ public final class EventDispatcher implements Listener {
         if (target == null) return;
 
         String id = resolveTargetId(target);
-        e.getPlayer().setMetadata("qe_last_interact", new FixedMetadataValue(plugin, id)); // optional debug marker
 
         // 커스텀 컨텍스트로 타깃 ID도 전달
-        engine.handleCustom(p, "ENTITY_INTERACT", Map.of("target_id", id, "entity", target));
+        engine.handleCustom(p, EventTypeRegistry.ENTITY_INTERACT, Map.of("target_id", id, "entity", target));
     }
 
     private String resolveTargetId(Entity entity) {
-        // Citizens NPC 우선
-        if (hasCitizens && CitizensAPI.hasImplementation() && CitizensAPI.getNPCRegistry().isNPC(entity)) {
-            NPC npc = CitizensAPI.getNPCRegistry().getNPC(entity);
-            if (npc != null) return "CITIZENS_" + npc.getId();
+        // Citizens NPC 우선 (스폰 시 채워진 엔티티 id 캐시)
+        if (hasCitizens) {
+            String npcKey = NpcInteractBridge.keyOf(entity);
+            if (npcKey != null) return npcKey;
         }
         // MythicMobs 엔티티
         if (hasMythic && mythicAPI != null) {
@@ -217,13 +226,13 @@ public final class EventDispatcher implements Listener {
     }
 
     @EventHandler(ignoreCancelled = true)
-    public void onFish(PlayerFishEvent e) { handle(e.getPlayer(), "FISHING", e); }
+    public void onFish(PlayerFishEvent e) { handle(e.getPlayer(), EventTypeRegistry.FISHING, e); }
 
     // ------------------------------------------------------------------------
     // WORLD EVENTS
     // ------------------------------------------------------------------------
     @EventHandler public void onChunkLoad(ChunkLoadEvent e) {
-        for (Player p : e.getWorld().getPlayers()) handle(p, "WORLD_CHUNK_LOAD", e);
+        for (Player p : e.getWorld().getPlayers()) handle(p, EventTypeRegistry.WORLD_CHUNK_LOAD, e);
     }
 
     // ------------------------------------------------------------------------
@@ -233,11 +242,11 @@ public final class EventDispatcher implements Listener {
     public void onMythicSpawn(MythicMobSpawnEvent e) {
         if (e.getEntity() != null && e.getEntity().getWorld() != null)
             for (Player p : e.getEntity().getWorld().getPlayers())
-                handle(p, "MYTHICMOBS_ENTITY_SPAWN", e);
+                handle(p, EventTypeRegistry.MYTHICMOBS_ENTITY_SPAWN, e);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onMythicDeath(MythicMobDeathEvent e) {
-        if (e.getKiller() instanceof Player p) handle(p, "MYTHICMOBS_ENTITY_KILL", e);
+        if (e.getKiller() instanceof Player p) handle(p, EventTypeRegistry.MYTHICMOBS_ENTITY_KILL, e);
     }
 }
@@ -1,45 +1,61 @@
 package com.gmail.bobason01.questengine.runtime;
 
 import net.citizensnpcs.api.CitizensAPI;
+import net.citizensnpcs.api.event.NPCDespawnEvent;
+import net.citizensnpcs.api.event.NPCSpawnEvent;
+import net.citizensnpcs.api.npc.NPC;
+import net.citizensnpcs.api.npc.NPCRegistry;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerInteractEntityEvent;
 
-import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * NpcInteractBridge
+ * - Citizens NPC 엔티티 id -> "CITIZENS_<npcId>" 키 캐시
+ * - NPC 스폰/디스폰 이벤트로만 갱신, 우클릭 시에는 맵 조회 한 번
+ * - Citizens 가 있을 때만 EventDispatcher 가 등록 (없으면 캐시는 항상 비어 있음)
+ */
 final class NpcInteractBridge implements Listener {
 
-    private final Engine engine;
+    private static final Map<Integer, String> KEYS = new ConcurrentHashMap<>();
 
-    NpcInteractBridge(Engine engine) {
-        this.engine = engine;
+    /** 이미 스폰된 NPC 를 한 번 채워 넣음 (리로드/늦은 등록 대비) */
+    void prime() {
+        try {
+            for (NPCRegistry reg : CitizensAPI.getNPCRegistries()) {
+                for (NPC npc : reg) {
+                    if (npc.isSpawned()) put(npc);
+                }
+            }
+        } catch (Throwable ignored) {}
     }
 
-    @EventHandler(ignoreCancelled = true)
-    public void onInteract(PlayerInteractEntityEvent e) {
-        Player p = e.getPlayer();
-        Entity clicked = e.getRightClicked();
-        if (p == null || clicked == null) return;
-
-        String key = resolveTargetKey(clicked);
-        if (key == null || key.isEmpty()) return;
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSpawn(NPCSpawnEvent e) {
+        if (e.isCancelled()) return;
+        put(e.getNPC());
+    }
 
-        // 전용 두-번-클릭 엔진 경로 호출
-        engine.handleNpcInteract(p, key);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDespawn(NPCDespawnEvent e) {
+        if (e.isCancelled()) return;
+        Entity entity = e.getNPC().getEntity();
+        if (entity != null) KEYS.remove(entity.getEntityId());
     }
 
-    private String resolveTargetKey(Entity clicked) {
-        // Citizens NPC 우선
-        try {
-            if (CitizensAPI.hasImplementation() && CitizensAPI.getNPCRegistry() != null) {
-                var npc = CitizensAPI.getNPCRegistry().getNPC(clicked);
-                if (npc != null) return "CITIZENS_" + npc.getId();
-            }
-        } catch (Throwable ignored) {}
+    private static void put(NPC npc) {
+        if (npc == null) return;
+        Entity entity = npc.getEntity();
+        if (entity != null) KEYS.put(entity.getEntityId(), "CITIZENS_" + npc.getId());
+    }
 
-        // 기본 엔티티 타입
-        return clicked.getType().name().toUpperCase(Locale.ROOT);
+    /** Citizens NPC 이면 "CITIZENS_<id>", 아니면 null */
+    static String keyOf(Entity entity) {
+        if (entity == null || KEYS.isEmpty()) return null;
+        return KEYS.get(entity.getEntityId());
     }
 }
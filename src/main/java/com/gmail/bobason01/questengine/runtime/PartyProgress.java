@@ -0,0 +1,112 @@
+package com.gmail.bobason01.questengine.runtime;
+
+import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.party.PartyHook;
+import com.gmail.bobason01.questengine.progress.ProgressRepository;
+import com.gmail.bobason01.questengine.quest.QuestDef;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * PartyProgress
+ * - 파티 퀘스트 진행을 틱 단위로 모아 근처 파티원에게 공유
+ * - 워커 스레드는 hit 만 큐에 넣고, 메인 스레드가 틱당 한 번 비움 (membersNear 는 위치 조회라 메인 전용)
+ * - 같은 파티 / 같은 퀘스트의 hit 는 합쳐서 ProgressRepository 일괄 갱신 한 번
+ * - 완료 판정도 파티당 한 번 (파티원별 워커 작업이 서로 경쟁하지 않음)
+ */
+final class PartyProgress {
+
+    private record Hit(Player source, QuestDef def) {}
+
+    /* 한 틱 동안 같은 파티 + 같은 퀘스트로 모인 진행 */
+    private static final class Group {
+        final QuestDef def;
+        final Map<UUID, Player> members = new LinkedHashMap<>(8);
+        int amount;
+
+        Group(QuestDef def) {
+            this.def = def;
+        }
+    }
+
+    private final QuestEnginePlugin plugin;
+    private final ProgressRepository progress;
+    private final BiConsumer<Player, QuestDef> complete;
+    private final int radius;
+
+    private final Queue<Hit> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    PartyProgress(QuestEnginePlugin plugin, ProgressRepository progress, BiConsumer<Player, QuestDef> complete) {
+        this.plugin = plugin;
+        this.progress = progress;
+        this.complete = complete;
+        this.radius = Math.max(1, plugin.getConfig().getInt("party.share-radius", 48));
+    }
+
+    /** 파티 공유 대상인지 */
+    static boolean shares(QuestDef def) {
+        return def.party && PartyHook.enabled();
+    }
+
+    /** 진행 1 회 기록 (아무 스레드) */
+    void add(Player source, QuestDef def) {
+        queue.offer(new Hit(source, def));
+        if (scheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::drain);
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false);
+
+        Map<String, Group> groups = new LinkedHashMap<>();
+        StringBuilder key = new StringBuilder(96);
+        Hit hit;
+        while ((hit = queue.poll()) != null) {
+            Player source = hit.source();
+            QuestDef def = hit.def();
+            if (source == null || !source.isOnline()) continue;
+
+            List<Player> members = new ArrayList<>(PartyHook.membersNear(source, radius));
+            members.sort(Comparator.comparing(Player::getUniqueId));
+
+            key.setLength(0);
+            key.append(def.ordinal);
+            for (Player m : members) key.append('|').append(m.getUniqueId());
+
+            Group g = groups.computeIfAbsent(key.toString(), k -> new Group(def));
+            for (Player m : members) g.members.putIfAbsent(m.getUniqueId(), m);
+            g.amount++;
+        }
+
+        for (Group g : groups.values()) {
+            try {
+                apply(g);
+            } catch (Throwable t) {
+                plugin.getLogger().warning("[QuestEngine] Party progress failed for " + g.def.id + ": " + t.getMessage());
+            }
+        }
+    }
+
+    private void apply(Group g) {
+        int qid = g.def.ordinal;
+        Map<UUID, String> active = new LinkedHashMap<>(g.members.size() * 2);
+        for (Player m : g.members.values()) {
+            if (progress.isActive(m.getUniqueId(), m.getName(), qid)) active.put(m.getUniqueId(), m.getName());
+        }
+        if (active.isEmpty()) return;
+
+        Map<UUID, Integer> values = progress.addProgressAll(active, qid, g.amount);
+        for (Map.Entry<UUID, Integer> e : values.entrySet()) {
+            if (e.getValue() < g.def.amount) continue;
+            Player m = g.members.get(e.getKey());
+            if (m != null && m.isOnline()) complete.accept(m, g.def);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.gmail.bobason01.questengine.runtime;
+
+import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.progress.ResetEpochs;
+import com.gmail.bobason01.questengine.quest.QuestDef;
+import com.gmail.bobason01.questengine.quest.QuestRepository;
+import com.gmail.bobason01.questengine.quest.ResetSchedule;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResetScheduler
+ * - 모든 주기 초기화 퀘스트(DAILY / WEEKLY / MONTHLY / CRON)를 타이머 하나로 처리
+ * - 매 실행마다 벽시계 기준으로 다음 경계를 새로 계산해 예약 (고정 주기 반복이 아니므로 랙 / DST 로 밀리지 않음)
+ * - 같은 경계를 공유하는 퀘스트는 한 번의 패스에서 epoch 테이블 교체로 함께 초기화
+ * - 시계 보정에 대비해 최대 MAX_SLEEP_MS 마다 깨어나 다시 계산
+ */
+final class ResetScheduler implements AutoCloseable {
+
+    private static final long MAX_SLEEP_MS = 60L * 60L * 1000L;
+
+    private final QuestEnginePlugin plugin;
+    private final QuestRepository quests;
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "QuestEngine-ResetTimer");
+                t.setDaemon(true);
+                return t;
+            });
+
+    // questId -> 컴파일된 스케줄 (rebuild 시 교체)
+    private volatile Map<String, ResetSchedule> schedules = Map.of();
+    // 마지막으로 게시한 epoch 테이블
+    private Map<String, Long> published = Map.of();
+    private ScheduledFuture<?> pending;
+
+    ResetScheduler(QuestEnginePlugin plugin, QuestRepository quests) {
+        this.plugin = plugin;
+        this.quests = quests;
+    }
+
+    /** 퀘스트 정의로부터 스케줄을 다시 컴파일하고 즉시 한 번 평가 */
+    void rebuild() {
+        String defaultTime = plugin.getConfig().getString("reset.default-time", "04:00");
+        ZoneId zone = ResetSchedule.zoneOf(plugin.getConfig().getString("reset.timezone", ""));
+        if (zone == null) zone = ZoneId.systemDefault();
+
+        Map<String, ResetSchedule> next = new HashMap<String, ResetSchedule>();
+        for (QuestDef def : quests.all()) {
+            if (def == null || def.reset == null) continue;
+            try {
+                ResetSchedule s = ResetSchedule.compile(def.reset, defaultTime, zone);
+                if (s != null) next.put(def.id, s);
+            } catch (IllegalArgumentException ex) {
+                plugin.getLogger().warning("[QuestEngine] Invalid reset for quest " + def.id + ": " + ex.getMessage());
+            }
+        }
+        schedules = Collections.unmodifiableMap(next);
+        if (!timer.isShutdown()) timer.execute(this::tick);
+    }
+
+    /** 현재 시각 기준으로 epoch 게시 후 다음 경계 예약 (타이머 스레드 전용) */
+    private void tick() {
+        try {
+            Instant now = Instant.now();
+            Map<String, ResetSchedule> current = schedules;
+
+            Map<String, Long> table = new HashMap<String, Long>(current.size() * 2);
+            Map<String, List<String>> crossed = new TreeMap<String, List<String>>();
+            Instant wake = now.plusMillis(MAX_SLEEP_MS);
+
+            for (Map.Entry<String, ResetSchedule> e : current.entrySet()) {
+                ResetSchedule s = e.getValue();
+                long epoch = s.epochAt(now);
+                if (epoch == 0L) continue;
+                table.put(e.getKey(), epoch);
+
+                Long before = published.get(e.getKey());
+                if (before != null && before != epoch) {
+                    crossed.computeIfAbsent(s.key(), k -> new ArrayList<String>()).add(e.getKey());
+                }
+
+                ZonedDateTime next = s.next(now);
+                if (next != null && next.toInstant().isBefore(wake)) wake = next.toInstant();
+            }
+
+            published = table;
+            ResetEpochs.publish(table);
+
+            for (Map.Entry<String, List<String>> e : crossed.entrySet()) {
+                plugin.getLogger().info("[QuestEngine] Reset " + e.getValue().size() + " quest(s) at " + e.getKey());
+            }
+
+            schedule(Math.max(1L, wake.toEpochMilli() - Instant.now().toEpochMilli()));
+        } catch (Throwable t) {
+            plugin.getLogger().warning("[QuestEngine] Reset pass failed: " + t.getMessage());
+            schedule(MAX_SLEEP_MS);
+        }
+    }
+
+    private void schedule(long delayMs) {
+        if (timer.isShutdown()) return;
+        if (pending != null) pending.cancel(false);
+        // 경계 바로 직전에 깨어나지 않도록 약간의 여유
+        pending = timer.schedule(this::tick, delayMs + 5L, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
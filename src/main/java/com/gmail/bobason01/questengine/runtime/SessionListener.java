@@ -0,0 +1,65 @@
+package com.gmail.bobason01.questengine.runtime;
+
+import com.gmail.bobason01.questengine.QuestEnginePlugin;
+import com.gmail.bobason01.questengine.progress.ProgressRepository;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * SessionListener
+ * - AsyncPlayerPreLoginEvent (비동기 스레드) 에서 진행 정보를 미리 로드
+ * - 로드가 실패하거나 timeout 안에 끝나지 않으면 load-retries 만큼 재시도 후 정책 적용
+ *   (저장소 오류를 빈 진행 정보로 대신하지 않음 - 세션에는 로드 성공한 데이터만 올라감)
+ *   KICK: 접속 거부 / ALLOW: 접속 허용, 로드는 백그라운드에서 계속 (그동안 핫패스는 "로딩 중")
+ * - 다른 플러그인이 로그인을 거부하면 임시 세션 정리
+ */
+public final class SessionListener implements Listener {
+
+    private final QuestEnginePlugin plugin;
+    private final ProgressRepository progress;
+    private final long timeoutMillis;
+    private final int retries;
+    private final boolean kick;
+
+    public SessionListener(QuestEnginePlugin plugin, ProgressRepository progress) {
+        this.plugin = plugin;
+        this.progress = progress;
+        this.timeoutMillis = Math.max(100L, plugin.getConfig().getLong("session.load-timeout-ms", 5000L));
+        this.retries = Math.max(0, plugin.getConfig().getInt("session.load-retries", 1));
+        this.kick = !"ALLOW".equals(plugin.getConfig().getString("session.load-failure", "KICK").trim().toUpperCase(Locale.ROOT));
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPreLogin(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        UUID id = e.getUniqueId();
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            if (progress.preLogin(id, e.getName(), timeoutMillis)) return;
+        }
+        if (kick) {
+            progress.abortLogin(id);
+            e.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, plugin.msg().pref("progress_load_failed"));
+            plugin.getLogger().warning("[QuestEngine] Progress load failed for " + e.getName() + ", login denied.");
+        } else {
+            plugin.getLogger().warning("[QuestEngine] Progress load failed for " + e.getName() + ", retrying in background.");
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLoginResult(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) progress.abortLogin(e.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLoginResult(PlayerLoginEvent e) {
+        if (e.getResult() != PlayerLoginEvent.Result.ALLOWED) progress.abortLogin(e.getPlayer().getUniqueId());
+    }
+}
@@ -1,23 +1,207 @@
 package com.gmail.bobason01.questengine.runtime;
 
-import net.citizensnpcs.api.CitizensAPI;
+import com.gmail.bobason01.questengine.quest.EventTypeRegistry;
+import io.lumine.mythic.bukkit.events.MythicMobDeathEvent;
+import io.lumine.mythic.bukkit.events.MythicMobSpawnEvent;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.block.*;
+import org.bukkit.event.enchantment.EnchantItemEvent;
+import org.bukkit.event.entity.*;
+import org.bukkit.event.inventory.*;
+import org.bukkit.event.player.*;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.inventory.ItemStack;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * TargetMatchers
  * 이벤트별 타깃 비교 로직
- * - ENTITY_INTERACT: Citizens NPC / 일반 엔티티 식별 지원
- * - BLOCK_BREAK 등은 Engine 쪽에서 등록
+ * - 이벤트 클래스 -> 타깃 추출기 테이블을 클래스 로드 시 한 번 구성
+ * - 추출 값 종류에 따라 TargetSet 의 Material / EntityType 비트 테스트 또는 이름 테스트 수행
+ * - EventDispatcher 가 발행하는 모든 키에 타입별 매처 제공
+ * - PLAYER_CHAT: ChatTargetIndex(Aho-Corasick) 선필터로 대체
+ * - PLAYER_COMMAND: CommandTargetIndex(라벨/인자 트라이) 선필터로 대체
+ * - ENTITY_INTERACT: Citizens NPC(NpcInteractBridge 캐시) / 일반 엔티티 식별 지원
  */
 public final class TargetMatchers {
 
     private TargetMatchers() {}
 
+    /* 이벤트 클래스 -> 매처 (정확한 클래스 기준, 한 번만 구성) */
+    private static final Map<Class<?>, Engine.TargetMatcher> BY_CLASS = new HashMap<>(64);
+
+    /* 하위 클래스 조회 결과 캐시 (Paper 구현 클래스 등) */
+    private static final ClassValue<Engine.TargetMatcher> RESOLVED = new ClassValue<>() {
+        @Override
+        protected Engine.TargetMatcher computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                Engine.TargetMatcher m = BY_CLASS.get(c);
+                if (m != null) return m;
+            }
+            return null;
+        }
+    };
+
+    static {
+        // 블록
+        material(BlockBreakEvent.class, e -> e.getBlock().getType());
+        material(BlockPlaceEvent.class, e -> e.getBlockPlaced().getType());
+        material(BlockFertilizeEvent.class, e -> e.getBlock().getType());
+        material(BlockBurnEvent.class, e -> e.getBlock().getType());
+        material(BlockExplodeEvent.class, e -> e.getBlock().getType());
+
+        // 아이템 / 인벤토리
+        material(PlayerItemConsumeEvent.class, e -> type(e.getItem()));
+        material(PlayerItemBreakEvent.class, e -> type(e.getBrokenItem()));
+        material(PlayerItemDamageEvent.class, e -> type(e.getItem()));
+        material(PlayerItemMendEvent.class, e -> type(e.getItem()));
+        material(EntityPickupItemEvent.class, e -> type(e.getItem().getItemStack()));
+        material(PlayerDropItemEvent.class, e -> type(e.getItemDrop().getItemStack()));
+        material(CraftItemEvent.class, e -> type(e.getRecipe().getResult()));
+        material(EnchantItemEvent.class, e -> type(e.getItem()));
+        material(PrepareAnvilEvent.class, e -> e.getResult() != null ? type(e.getResult()) : type(e.getInventory().getItem(0)));
+        material(PrepareSmithingEvent.class, e -> type(e.getResult()));
+        material(BrewEvent.class, e -> type(e.getContents().getIngredient()));
+        material(InventoryClickEvent.class, e -> type(e.getCurrentItem()));
+        name(InventoryOpenEvent.class, e -> e.getInventory().getType().name());
+
+        // 플레이어
+        name(PlayerJoinEvent.class, e -> worldName(e.getPlayer().getWorld()));
+        name(PlayerQuitEvent.class, e -> worldName(e.getPlayer().getWorld()));
+        name(PlayerRespawnEvent.class, e -> worldName(e.getRespawnLocation()));
+        material(PlayerMoveEvent.class, e -> e.getTo() == null ? null : e.getTo().getBlock().getRelative(BlockFace.DOWN).getType());
+        name(PlayerTeleportEvent.class, e -> worldName(e.getTo()));
+        material(PlayerBedEnterEvent.class, e -> e.getBed().getType());
+        material(PlayerSwapHandItemsEvent.class, e -> type(e.getMainHandItem()));
+        name(PlayerExpChangeEvent.class, e -> worldName(e.getPlayer().getWorld()));
+        name(PlayerLevelChangeEvent.class, e -> worldName(e.getPlayer().getWorld()));
+        material(PlayerItemHeldEvent.class, e -> type(e.getPlayer().getInventory().getItem(e.getNewSlot())));
+        // PLAYER_CHAT 은 Engine 이 ChatTargetIndex 로 후보를 미리 걸러내므로 추가 비교 없음
+        BY_CLASS.put(AsyncPlayerChatEvent.class, Engine.WILDCARD);
+        // PLAYER_COMMAND 도 CommandTargetIndex 트라이로 선필터
+        BY_CLASS.put(PlayerCommandPreprocessEvent.class, Engine.WILDCARD);
+
+        // 엔티티
+        entity(EntityDeathEvent.class, e -> e.getEntity().getType());
+        entity(EntityTameEvent.class, e -> e.getEntity().getType());
+        entity(EntityBreedEvent.class, e -> e.getEntity().getType());
+        entity(EntityDamageByEntityEvent.class, e -> e.getEntity().getType());
+        BY_CLASS.put(PlayerFishEvent.class, (p, e, def) -> {
+            if (!(e instanceof PlayerFishEvent fe)) return false;
+            Entity caught = fe.getCaught();
+            if (caught == null) return false;
+            if (caught instanceof Item item) return def.targetSet.test(type(item.getItemStack()));
+            return def.targetSet.test(caught.getType());
+        });
+
+        // 월드
+        name(ChunkLoadEvent.class, e -> worldName(e.getWorld()));
+
+        // MythicMobs (미설치 시 클래스 로드 실패를 무시)
+        try {
+            name(MythicMobSpawnEvent.class, e -> e.getMobType() == null ? null : e.getMobType().getInternalName());
+            name(MythicMobDeathEvent.class, e -> e.getMobType() == null ? null : e.getMobType().getInternalName());
+        } catch (Throwable ignored) {}
+    }
+
+    private static <E extends Event> void material(Class<E> type, Function<E, Material> f) {
+        BY_CLASS.put(type, (p, e, def) -> type.isInstance(e) && def.targetSet.test(f.apply(type.cast(e))));
+    }
+
+    private static <E extends Event> void entity(Class<E> type, Function<E, EntityType> f) {
+        BY_CLASS.put(type, (p, e, def) -> type.isInstance(e) && def.targetSet.test(f.apply(type.cast(e))));
+    }
+
+    private static <E extends Event> void name(Class<E> type, Function<E, String> f) {
+        BY_CLASS.put(type, (p, e, def) -> type.isInstance(e) && def.targetSet.testName(f.apply(type.cast(e))));
+    }
+
+    private static Material type(ItemStack item) {
+        return item == null ? null : item.getType();
+    }
+
+    private static String worldName(World world) {
+        return world == null ? null : world.getName();
+    }
+
+    private static String worldName(Location loc) {
+        return loc == null ? null : worldName(loc.getWorld());
+    }
+
+    /**
+     * 이벤트 클래스(또는 상위 클래스)에 등록된 매처
+     * 등록되지 않았으면 null
+     */
+    public static Engine.TargetMatcher forEvent(Class<?> eventClass) {
+        return eventClass == null ? null : RESOLVED.get(eventClass);
+    }
+
+    /**
+     * EventDispatcher 가 발행하는 키 -> 매처 등록
+     * 키와 이벤트 클래스의 대응은 EventDispatcher 의 핸들러와 동일하게 유지할 것
+     */
+    public static void installDefaults(BiConsumer<Integer, Engine.TargetMatcher> sink) {
+        sink.accept(EventTypeRegistry.BLOCK_BREAK, forEvent(BlockBreakEvent.class));
+        sink.accept(EventTypeRegistry.BLOCK_PLACE, forEvent(BlockPlaceEvent.class));
+        sink.accept(EventTypeRegistry.BLOCK_FERTILIZING, forEvent(BlockFertilizeEvent.class));
+        sink.accept(EventTypeRegistry.BLOCK_BURN, forEvent(BlockBurnEvent.class));
+        sink.accept(EventTypeRegistry.BLOCK_EXPLODE, forEvent(BlockExplodeEvent.class));
+
+        sink.accept(EventTypeRegistry.ITEM_CONSUME, forEvent(PlayerItemConsumeEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_BREAK, forEvent(PlayerItemBreakEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_DAMAGE, forEvent(PlayerItemDamageEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_MENDING, forEvent(PlayerItemMendEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_PICKUP, forEvent(EntityPickupItemEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_DROP, forEvent(PlayerDropItemEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_CRAFT, forEvent(CraftItemEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_ENCHANT, forEvent(EnchantItemEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_REPAIR, forEvent(PrepareAnvilEvent.class));
+        sink.accept(EventTypeRegistry.SMITHING, forEvent(PrepareSmithingEvent.class));
+        sink.accept(EventTypeRegistry.BREWING, forEvent(BrewEvent.class));
+        sink.accept(EventTypeRegistry.ITEM_MOVE, forEvent(InventoryClickEvent.class));
+        sink.accept(EventTypeRegistry.INVENTORY_OPEN, forEvent(InventoryOpenEvent.class));
+
+        sink.accept(EventTypeRegistry.PLAYER_PRE_JOIN, forEvent(PlayerJoinEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_LEAVE, forEvent(PlayerQuitEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_RESPAWN, forEvent(PlayerRespawnEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_CHAT, forEvent(AsyncPlayerChatEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_COMMAND, forEvent(PlayerCommandPreprocessEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_WALK, forEvent(PlayerMoveEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_TELEPORT, forEvent(PlayerTeleportEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_BED_ENTER, forEvent(PlayerBedEnterEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_SWAP_HAND, forEvent(PlayerSwapHandItemsEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_EXP_GAIN, forEvent(PlayerExpChangeEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_LEVELUP, forEvent(PlayerLevelChangeEvent.class));
+        sink.accept(EventTypeRegistry.PLAYER_ARMOR, forEvent(PlayerItemHeldEvent.class));
+
+        sink.accept(EventTypeRegistry.MOBKILLING, forEvent(EntityDeathEvent.class));
+        sink.accept(EventTypeRegistry.TAMING, forEvent(EntityTameEvent.class));
+        sink.accept(EventTypeRegistry.BREEDING, forEvent(EntityBreedEvent.class));
+        sink.accept(EventTypeRegistry.DEAL_DAMAGE, forEvent(EntityDamageByEntityEvent.class));
+        sink.accept(EventTypeRegistry.ENTITY_INTERACT, ENTITY_INTERACT_MATCHER);
+        sink.accept(EventTypeRegistry.FISHING, forEvent(PlayerFishEvent.class));
+
+        sink.accept(EventTypeRegistry.WORLD_CHUNK_LOAD, forEvent(ChunkLoadEvent.class));
+
+        try {
+            sink.accept(EventTypeRegistry.MYTHICMOBS_ENTITY_SPAWN, forEvent(MythicMobSpawnEvent.class));
+            sink.accept(EventTypeRegistry.MYTHICMOBS_ENTITY_KILL, forEvent(MythicMobDeathEvent.class));
+        } catch (Throwable ignored) {}
+    }
+
     /**
      * ENTITY_INTERACT 매칭기
      * targets:
@@ -25,28 +209,17 @@ public final class TargetMatchers {
      *   - ZOMBIE → 일반 좀비 클릭
      *   - VILLAGER → 주민 클릭
      */
-    public static final Engine.TargetMatcher ENTITY_INTERACT_MATCHER = (p, e, t) -> {
+    public static final Engine.TargetMatcher ENTITY_INTERACT_MATCHER = (p, e, def) -> {
         if (!(e instanceof PlayerInteractEntityEvent ie)) return false;
         Entity clicked = ie.getRightClicked();
         if (clicked == null) return false;
 
-        // Citizens NPC 매칭 (모든 registry 순회)
-        try {
-            for (var reg : CitizensAPI.getNPCRegistries()) {
-                var npc = reg.getNPC(clicked);
-                if (npc != null) {
-                    String npcKey = "CITIZENS_" + npc.getId();
-                    if (npcKey.equalsIgnoreCase(t)) {
-                        return true;
-                    }
-                }
-            }
-        } catch (Throwable ignored) {
-            // Citizens가 설치되지 않은 경우에도 안전하게 무시
-        }
+        // Citizens NPC 매칭 (엔티티 id 캐시 조회)
+        String npcKey = NpcInteractBridge.keyOf(clicked);
+        if (npcKey != null && def.targetSet.testName(npcKey)) return true;
 
         // 일반 엔티티 타입 매칭 (예: VILLAGER, ZOMBIE 등)
-        return clicked.getType().name().equalsIgnoreCase(t);
+        return def.targetSet.test(clicked.getType());
     };
 
     /**
@@ -59,14 +232,8 @@ public final class TargetMatchers {
         if (clicked == null) return null;
 
         // Citizens NPC
-        try {
-            for (var reg : CitizensAPI.getNPCRegistries()) {
-                var npc = reg.getNPC(clicked);
-                if (npc != null) {
-                    return "CITIZENS_" + npc.getId();
-                }
-            }
-        } catch (Throwable ignored) {}
+        String npcKey = NpcInteractBridge.keyOf(clicked);
+        if (npcKey != null) return npcKey;
 
         // 일반 엔티티 타입
         return clicked.getType().name().toUpperCase(Locale.ROOT);
@@ -2,14 +2,29 @@ package com.gmail.bobason01.questengine.storage;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.progress.PlayerData;
+import com.gmail.bobason01.questengine.progress.ResetEpochs;
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class FileStorage implements StorageProvider {
 
+    // 첫 int 가 음수면 포맷 표시, 아니면 epoch 없는 이전 포맷의 항목 수
+    private static final int FORMAT_EPOCH = -1;
+    // 스냅샷 뒤에 부분 저장 기록이 파일 끝까지 이어 붙는 포맷 (같은 퀘스트는 나중 기록이 우선)
+    private static final int FORMAT_DELTA = -2;
+    // 이어 붙인 기록이 이 값과 스냅샷 항목 수 중 큰 쪽을 넘으면 전체를 다시 씀
+    private static final int COMPACT_MIN = 64;
+
     private final QuestEnginePlugin plugin;
     private final File folder;
+    // 플레이어별 스냅샷 이후 이어 붙인 기록 수 / 스냅샷 항목 수
+    private final Map<UUID, int[]> appended = new ConcurrentHashMap<>();
 
     public FileStorage(QuestEnginePlugin plugin) {
         this.plugin = plugin;
@@ -27,43 +42,129 @@ public final class FileStorage implements StorageProvider {
         if (!f.exists()) return new PlayerData(id, name);
         try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
             PlayerData data = new PlayerData(id, name);
-            int count = in.readInt();
-            for (int i = 0; i < count; i++) {
-                String qid = in.readUTF();
-                boolean active = in.readBoolean();
-                boolean completed = in.readBoolean();
-                int value = in.readInt();
-                int points = in.readInt();
-                if (active) data.start(qid);
-                if (completed) data.complete(qid, points);
-                if (value > 0) data.add(qid, value);
-            }
+            int[] counts = read(in, data::restore);
+            if (counts[0] >= 0) appended.put(id, counts);
+            else appended.remove(id);
             return data;
         } catch (Throwable t) {
-            plugin.getLogger().warning("[FileStorage] load failed for " + id + ": " + t.getMessage());
-            return new PlayerData(id, name);
+            // 부분 저장 상태는 버림 (다음 저장은 전체 쓰기) - 실패한 로드 결과로 저장되는 일은 없음
+            appended.remove(id);
+            throw new StorageException("[FileStorage] load failed for " + id + ": " + t.getMessage(), t);
         }
     }
 
     @Override
     public void save(PlayerData d) {
         File f = fileOf(d.getId());
-        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
-            Set<String> all = new HashSet<>(d.activeIds());
-            all.addAll(d.completedIds());
-            out.writeInt(all.size());
-            for (String qid : all) {
-                out.writeUTF(qid);
-                out.writeBoolean(d.isActive(qid));
-                out.writeBoolean(d.isCompleted(qid));
-                out.writeInt(d.valueOf(qid));
-                out.writeInt(d.isCompleted(qid) ? d.pointsOf(qid) : 0);
+        // 임시 파일에 다 쓰고 디스크에 내린 뒤 교체 (쓰는 도중 크래시가 나도 기존 파일은 온전)
+        File tmp = new File(folder, f.getName() + ".tmp");
+        try {
+            List<PlayerData.Entry> entries = d.entries();
+            try (FileOutputStream fos = new FileOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                out.writeInt(FORMAT_DELTA);
+                out.writeInt(entries.size());
+                for (PlayerData.Entry e : entries) {
+                    write(out, e);
+                }
+                out.flush();
+                fos.getFD().sync();
+            }
+            try {
+                Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            appended.put(d.getId(), new int[]{0, entries.size()});
+        } catch (Throwable t) {
+            tmp.delete();
+            appended.remove(d.getId());
+            plugin.getLogger().warning("[FileStorage] save failed for " + d.getId() + ": " + t.getMessage());
+        }
+    }
+
+    /**
+     * 바뀐 항목만 파일 끝에 이어 붙임
+     * 이전 포맷 파일이거나 이어 붙인 기록이 쌓였으면 전체를 다시 써서 정리
+     */
+    @Override
+    public boolean saveChanges(PlayerData d, List<PlayerData.Entry> changes) {
+        if (changes.isEmpty()) return true;
+        File f = fileOf(d.getId());
+        int[] state = appended.get(d.getId());
+        if (state == null || !f.isFile() || state[0] + changes.size() > Math.max(COMPACT_MIN, state[1])) {
+            save(d);
+            return appended.containsKey(d.getId());
+        }
+        try (FileOutputStream fos = new FileOutputStream(f, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            for (PlayerData.Entry e : changes) {
+                write(out, e);
             }
+            // 저장 성공 후 저널 세그먼트가 지워지므로 디스크까지 내림
+            out.flush();
+            fos.getFD().sync();
+            state[0] += changes.size();
+            return true;
         } catch (Throwable t) {
+            // 일부만 기록됐을 수 있으므로 다음 저장은 전체 쓰기
+            appended.remove(d.getId());
             plugin.getLogger().warning("[FileStorage] save failed for " + d.getId() + ": " + t.getMessage());
+            return false;
         }
     }
 
+    @FunctionalInterface
+    private interface RecordSink {
+        void accept(String qid, boolean active, boolean completed, int value, int points, long epoch);
+    }
+
+    /**
+     * 스냅샷과 이어 붙인 기록을 순서대로 sink 에 전달
+     * 반환: {이어 붙인 기록 수, 스냅샷 항목 수} (이전 포맷이거나 끝이 잘렸으면 기록 수 -1)
+     */
+    private static int[] read(DataInputStream in, RecordSink sink) throws IOException {
+        int head = in.readInt();
+        boolean epochs = head <= FORMAT_EPOCH;
+        int count = epochs ? in.readInt() : head;
+        for (int i = 0; i < count; i++) {
+            String qid = in.readUTF();
+            boolean active = in.readBoolean();
+            boolean completed = in.readBoolean();
+            int value = in.readInt();
+            int points = in.readInt();
+            long epoch = epochs ? in.readLong() : 0L;
+            sink.accept(qid, active, completed, value, points, epoch);
+        }
+        if (head != FORMAT_DELTA) return new int[]{-1, count};
+        int deltas = 0;
+        try {
+            while (in.available() > 0) {
+                String qid = in.readUTF();
+                boolean active = in.readBoolean();
+                boolean completed = in.readBoolean();
+                int value = in.readInt();
+                int points = in.readInt();
+                long epoch = in.readLong();
+                sink.accept(qid, active, completed, value, points, epoch);
+                deltas++;
+            }
+        } catch (EOFException torn) {
+            // 쓰다 끊긴 마지막 기록은 버리고, 뒤에 이어 붙이지 않도록 다음 저장은 전체 쓰기
+            return new int[]{-1, count};
+        }
+        return new int[]{deltas, count};
+    }
+
+    private static void write(DataOutputStream out, PlayerData.Entry e) throws IOException {
+        out.writeUTF(e.questId());
+        out.writeBoolean(e.active());
+        out.writeBoolean(e.completed());
+        out.writeInt(e.value());
+        out.writeInt(e.points());
+        out.writeLong(e.epoch());
+    }
+
     @Override
     public Map<UUID, Integer> loadAllPointsApprox() {
         Map<UUID, Integer> map = new HashMap<>();
@@ -72,16 +173,14 @@ public final class FileStorage implements StorageProvider {
         for (File f : files) {
             try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
                 UUID id = UUID.fromString(f.getName().replace(".dat", ""));
+                // 부분 저장 기록이 같은 퀘스트를 덮어쓸 수 있으므로 퀘스트별로 모은 뒤 합산
+                Map<String, Integer> earned = new HashMap<>();
+                read(in, (qid, active, completed, value, pts, epoch) -> {
+                    if (completed && !ResetEpochs.isStale(qid, epoch)) earned.put(qid, pts);
+                    else earned.remove(qid);
+                });
                 int total = 0;
-                int count = in.readInt();
-                for (int i = 0; i < count; i++) {
-                    in.readUTF();
-                    in.readBoolean();
-                    boolean completed = in.readBoolean();
-                    in.readInt();
-                    int pts = in.readInt();
-                    if (completed) total += pts;
-                }
+                for (int pts : earned.values()) total += pts;
                 map.put(id, total);
             } catch (Throwable ignored) {}
         }
@@ -97,14 +196,20 @@ public final class FileStorage implements StorageProvider {
 
     @Override
     public void reset(UUID id) {
+        appended.remove(id);
         File f = fileOf(id);
         if (f.exists()) f.delete();
     }
 
     @Override
     public void resetQuest(UUID id, String questId) {
+        resetQuest(id, QuestOrdinals.lookup(questId));
+    }
+
+    @Override
+    public void resetQuest(UUID id, int ordinal) {
         PlayerData d = load(id, "unknown");
-        d.cancel(questId);
+        d.cancel(ordinal);
         save(d);
     }
 
@@ -0,0 +1,333 @@
+package com.gmail.bobason01.questengine.storage;
+
+import com.gmail.bobason01.questengine.progress.PlayerData;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * ProgressJournal
+ * - 진행 변경을 저장소보다 먼저 기록하는 append-only 바이너리 저널 (write-ahead)
+ * - 기록 하나 = 변경 종류 + quest ordinal + 증가량 + 변경 직후 상태 (여러 번 재생해도 결과가 같음)
+ * - 호출 스레드는 큐에 넣기만 하고, 단일 writer 스레드가 모인 기록을 한 번에 쓰고 fsync 정책 적용 (group commit)
+ * - flush 마다 세그먼트를 교체하고, 저장소 저장이 전부 성공하면 닫힌 세그먼트를 삭제
+ * - 시작 시 남은 세그먼트를 번호 순서대로 재생
+ */
+public final class ProgressJournal {
+
+    public static final byte START = 1;
+    public static final byte ADD = 2;
+    public static final byte CANCEL = 3;
+    public static final byte COMPLETE = 4;
+    public static final byte RESET = 5;
+    public static final byte CANCEL_ALL = 6;
+    public static final byte RESET_ALL = 7;
+
+    /** ALWAYS: 묶음마다 fsync / INTERVAL: 최대 interval 마다 / NEVER: OS 에 맡김 */
+    public enum Sync { ALWAYS, INTERVAL, NEVER }
+
+    /** 저널 기록 하나 (CANCEL_ALL / RESET_ALL 은 ordinal -1, state null) */
+    public record Op(byte type, UUID id, int ordinal, int delta, PlayerData.Entry state) {}
+
+    private static final int MAGIC = 0x514A4E31; // "QJN1"
+    // type(1) uuid(16) ordinal(4) delta(4) flags(1) value(4) points(4) epoch(8) crc(4)
+    private static final int RECORD = 46;
+    private static final String PREFIX = "progress-";
+    private static final String SUFFIX = ".qej";
+
+    private static final Object CLOSE = new Object();
+
+    private final File folder;
+    private final Sync sync;
+    private final long syncIntervalMillis;
+    private final Logger log;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // 가장 최근에 닫힌 세그먼트 번호 (-1 = 없음)
+    private volatile long sealed;
+
+    // writer 스레드 전용
+    private final ByteBuffer buf = ByteBuffer.allocate(RECORD * 256);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private long seq;
+    private long lastSync;
+    private boolean unsynced;
+    private boolean failing;
+
+    public ProgressJournal(File folder, Sync sync, long syncIntervalMillis, Logger log) {
+        this.folder = folder;
+        this.sync = sync;
+        this.syncIntervalMillis = Math.max(1L, syncIntervalMillis);
+        this.log = log;
+        if (!folder.exists()) folder.mkdirs();
+        long max = -1L;
+        for (long s : segments()) max = Math.max(max, s);
+        this.sealed = max;
+        this.seq = max + 1;
+        this.writer = new Thread(this::run, "QuestEngine-Journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // ------------------------------------------------------------
+    // 기록
+    // ------------------------------------------------------------
+
+    /**
+     * 변경 직후 호출
+     * 상태 스냅샷과 큐 삽입을 PlayerData 잠금 안에서 하므로 같은 플레이어의 기록 순서 = 상태 순서
+     */
+    public void append(byte type, PlayerData d, int ordinal, int delta) {
+        if (!running || d == null) return;
+        synchronized (d) {
+            queue.add(new Op(type, d.getId(), ordinal, delta, ordinal < 0 ? null : d.entry(ordinal)));
+        }
+    }
+
+    public void appendReset(UUID id) {
+        if (!running || id == null) return;
+        queue.add(new Op(RESET_ALL, id, -1, 0, null));
+    }
+
+    /**
+     * 현재 세그먼트를 닫고 새 세그먼트로 넘어감 (IO 스레드에서 flush 직전에 호출)
+     * 이 호출 전에 들어온 기록은 전부 반환된 번호 이하의 세그먼트에 있음
+     * @return 닫힌 세그먼트 중 가장 큰 번호 (-1 = 없음 / 실패)
+     */
+    public long rotate() {
+        if (!running) return -1L;
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        queue.add(done);
+        try {
+            return done.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    /** 저장소에 모두 반영된 세그먼트 삭제 (upTo 이하) */
+    public void discardUpTo(long upTo) {
+        if (upTo < 0) return;
+        for (long s : segments()) {
+            if (s <= upTo && !fileOf(s).delete()) {
+                log.warning("[QuestEngine] Failed to delete journal segment " + fileOf(s).getName());
+            }
+        }
+    }
+
+    public void close() {
+        if (!running) return;
+        running = false;
+        queue.add(CLOSE);
+        try {
+            writer.join(5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // writer 스레드
+    // ------------------------------------------------------------
+
+    private void run() {
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            Object first;
+            try {
+                if (unsynced) {
+                    long wait = lastSync + syncIntervalMillis - System.currentTimeMillis();
+                    first = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                    if (first == null) {
+                        force();
+                        continue;
+                    }
+                } else {
+                    first = queue.take();
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            batch.add(first);
+            queue.drainTo(batch);
+            for (Object o : batch) {
+                if (o instanceof Op op) {
+                    if (buf.remaining() < RECORD) write();
+                    encode(op);
+                } else if (o instanceof CompletableFuture<?> f) {
+                    write();
+                    seal();
+                    @SuppressWarnings("unchecked")
+                    CompletableFuture<Long> done = (CompletableFuture<Long>) f;
+                    done.complete(sealed);
+                } else if (o == CLOSE) {
+                    write();
+                    seal();
+                    return;
+                }
+            }
+            write();
+            batch.clear();
+        }
+        write();
+        seal();
+    }
+
+    private void encode(Op op) {
+        int start = buf.position();
+        PlayerData.Entry e = op.state();
+        buf.put(op.type());
+        buf.putLong(op.id().getMostSignificantBits());
+        buf.putLong(op.id().getLeastSignificantBits());
+        buf.putInt(op.ordinal());
+        buf.putInt(op.delta());
+        buf.put((byte) (e == null ? 0 : (e.active() ? 1 : 0) | (e.completed() ? 2 : 0)));
+        buf.putInt(e == null ? 0 : e.value());
+        buf.putInt(e == null ? 0 : e.points());
+        buf.putLong(e == null ? 0L : e.epoch());
+        crc.reset();
+        crc.update(buf.array(), start, RECORD - 4);
+        buf.putInt((int) crc.getValue());
+    }
+
+    /* 버퍼에 모인 기록을 한 번에 기록 + fsync 정책 적용 */
+    private void write() {
+        if (buf.position() == 0) return;
+        buf.flip();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(fileOf(seq).toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                if (channel.size() == 0) channel.write(ByteBuffer.allocate(4).putInt(0, MAGIC));
+            }
+            while (buf.hasRemaining()) channel.write(buf);
+            failing = false;
+            if (sync == Sync.ALWAYS) {
+                force();
+            } else if (sync == Sync.INTERVAL) {
+                unsynced = true;
+                if (System.currentTimeMillis() - lastSync >= syncIntervalMillis) force();
+            }
+        } catch (IOException e) {
+            // 메모리 상태와 dirty 저장은 그대로 진행되므로 저널만 빠짐
+            if (!failing) log.warning("[QuestEngine] Journal write failed: " + e.getMessage());
+            failing = true;
+        } finally {
+            buf.clear();
+        }
+    }
+
+    private void force() {
+        unsynced = false;
+        lastSync = System.currentTimeMillis();
+        if (channel == null) return;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            log.warning("[QuestEngine] Journal fsync failed: " + e.getMessage());
+        }
+    }
+
+    /* 현재 세그먼트를 닫음 (기록이 없었으면 그대로 두고 이전 번호 유지) */
+    private void seal() {
+        if (channel == null) return;
+        try {
+            if (sync != Sync.NEVER) channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            log.warning("[QuestEngine] Journal close failed: " + e.getMessage());
+        }
+        channel = null;
+        unsynced = false;
+        sealed = seq++;
+    }
+
+    // ------------------------------------------------------------
+    // 재생
+    // ------------------------------------------------------------
+
+    /**
+     * 남아 있는 세그먼트를 번호 순서대로 재생 (새 기록이 시작되기 전, 시작 시 한 번)
+     * 끝이 잘리거나 CRC 가 맞지 않는 기록에서 해당 세그먼트 재생을 멈춤
+     * @return 재생한 기록 수
+     */
+    public int replay(Consumer<Op> sink) {
+        int count = 0;
+        byte[] rec = new byte[RECORD];
+        CRC32 check = new CRC32();
+        for (long s : segments()) {
+            if (s >= seq) continue;
+            File f = fileOf(s);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+                if (f.length() < 4 || in.readInt() != MAGIC) {
+                    log.warning("[QuestEngine] Skipping unknown journal segment " + f.getName());
+                    continue;
+                }
+                while (true) {
+                    try {
+                        in.readFully(rec);
+                    } catch (EOFException end) {
+                        break;
+                    }
+                    ByteBuffer b = ByteBuffer.wrap(rec);
+                    check.reset();
+                    check.update(rec, 0, RECORD - 4);
+                    if (b.getInt(RECORD - 4) != (int) check.getValue()) {
+                        log.warning("[QuestEngine] Journal segment " + f.getName() + " has a damaged record, rest skipped.");
+                        break;
+                    }
+                    byte type = b.get();
+                    UUID id = new UUID(b.getLong(), b.getLong());
+                    int ordinal = b.getInt();
+                    int delta = b.getInt();
+                    byte flags = b.get();
+                    int value = b.getInt();
+                    int points = b.getInt();
+                    long epoch = b.getLong();
+                    PlayerData.Entry state = ordinal < 0 ? null
+                            : new PlayerData.Entry(ordinal, (flags & 1) != 0, (flags & 2) != 0, value, points, epoch);
+                    sink.accept(new Op(type, id, ordinal, delta, state));
+                    count++;
+                }
+            } catch (IOException e) {
+                log.warning("[QuestEngine] Failed to replay journal segment " + f.getName() + ": " + e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    // ------------------------------------------------------------
+    // 세그먼트 파일
+    // ------------------------------------------------------------
+
+    private File fileOf(long s) {
+        return new File(folder, PREFIX + String.format(Locale.ROOT, "%012d", s) + SUFFIX);
+    }
+
+    /* 폴더의 세그먼트 번호 (오름차순) */
+    private long[] segments() {
+        String[] names = folder.list((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (names == null) return new long[0];
+        long[] out = new long[names.length];
+        int n = 0;
+        for (String name : names) {
+            try {
+                long s = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                out[n++] = s;
+            } catch (NumberFormatException ignored) {}
+        }
+        out = Arrays.copyOf(out, n);
+        Arrays.sort(out);
+        return out;
+    }
+}
@@ -0,0 +1,14 @@
+package com.gmail.bobason01.questengine.storage;
+
+/**
+ * StorageException
+ * - 저장소가 플레이어 진행 정보를 읽지 못함 (I/O / SQL 오류, 손상된 파일)
+ * - 빈 PlayerData 로 대신하지 않고 호출 측이 실패로 처리하도록 던짐
+ *   (빈 데이터를 로드 성공으로 올리면 다음 저장이 실제 기록을 덮어씀)
+ */
+public final class StorageException extends RuntimeException {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
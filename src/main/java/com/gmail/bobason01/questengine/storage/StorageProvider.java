@@ -2,16 +2,56 @@ package com.gmail.bobason01.questengine.storage;
 
 
 import com.gmail.bobason01.questengine.progress.PlayerData;
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public interface StorageProvider {
+    /** 저장된 기록이 없으면 빈 PlayerData, 읽기에 실패하면 StorageException (빈 데이터로 대신하지 않음) */
     PlayerData load(UUID id, String name);
     void save(PlayerData data);
+
+    /**
+     * 마지막 저장 이후 바뀐 항목만 저장 (PlayerData.drainChanges 결과)
+     * removed() 항목은 삭제 대상. 실패하면 false (호출 측이 변경을 되돌려 다음에 재시도)
+     * 기본은 전체 저장
+     */
+    default boolean saveChanges(PlayerData data, List<PlayerData.Entry> changes) {
+        save(data);
+        return true;
+    }
+
+    /** 한 번의 flush 에서 저장할 플레이어 하나분의 변경 */
+    record Pending(PlayerData data, List<PlayerData.Entry> changes) {}
+
+    /**
+     * 여러 플레이어의 변경을 한 번에 저장하고 실패한 것만 반환
+     * 기본은 플레이어마다 saveChanges (SQL 은 트랜잭션 하나 / 크기별 묶음으로 처리)
+     */
+    default List<Pending> saveChangesBatch(List<Pending> batch) {
+        List<Pending> failed = new ArrayList<>();
+        for (Pending p : batch) {
+            boolean ok;
+            try {
+                ok = saveChanges(p.data(), p.changes());
+            } catch (Throwable t) {
+                ok = false;
+            }
+            if (!ok) failed.add(p);
+        }
+        return failed;
+    }
     Map<UUID, Integer> loadAllPointsApprox();
     void preloadAll();
     void reset(UUID id);
     void resetQuest(UUID id, String questId);
+
+    /* ordinal 버전 (기본은 id 로 변환해 위임) */
+    default void resetQuest(UUID id, int ordinal) {
+        resetQuest(id, QuestOrdinals.id(ordinal));
+    }
     void close();
 }
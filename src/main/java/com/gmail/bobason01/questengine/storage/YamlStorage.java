@@ -2,6 +2,8 @@ package com.gmail.bobason01.questengine.storage;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.progress.PlayerData;
+import com.gmail.bobason01.questengine.progress.ResetEpochs;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
@@ -26,16 +28,21 @@ public final class YamlStorage implements StorageProvider {
     @Override
     public PlayerData load(UUID id, String name) {
         File f = fileOf(id);
-        YamlConfiguration yml = YamlConfiguration.loadConfiguration(f);
         PlayerData d = new PlayerData(id, name);
+        if (!f.exists()) return d;
+        YamlConfiguration yml = new YamlConfiguration();
+        try {
+            yml.load(f);
+        } catch (IOException | InvalidConfigurationException e) {
+            throw new StorageException("[YamlStorage] load failed for " + id + ": " + e.getMessage(), e);
+        }
         for (String qid : yml.getKeys(false)) {
             boolean active = yml.getBoolean(qid + ".active", false);
             boolean completed = yml.getBoolean(qid + ".completed", false);
             int value = yml.getInt(qid + ".value", 0);
             int points = yml.getInt(qid + ".points", 0);
-            if (active) d.start(qid);
-            if (completed) d.complete(qid, points);
-            if (value > 0) d.add(qid, value);
+            long epoch = yml.getLong(qid + ".epoch", 0L);
+            d.restore(qid, active, completed, value, points, epoch);
         }
         return d;
     }
@@ -44,13 +51,13 @@ public final class YamlStorage implements StorageProvider {
     public void save(PlayerData d) {
         File f = fileOf(d.getId());
         YamlConfiguration yml = new YamlConfiguration();
-        Set<String> all = new HashSet<>(d.activeIds());
-        all.addAll(d.completedIds());
-        for (String qid : all) {
-            yml.set(qid + ".active", d.isActive(qid));
-            yml.set(qid + ".completed", d.isCompleted(qid));
-            yml.set(qid + ".value", d.valueOf(qid));
-            yml.set(qid + ".points", d.isCompleted(qid) ? d.pointsOf(qid) : 0);
+        for (PlayerData.Entry e : d.entries()) {
+            String qid = e.questId();
+            yml.set(qid + ".active", e.active());
+            yml.set(qid + ".completed", e.completed());
+            yml.set(qid + ".value", e.value());
+            yml.set(qid + ".points", e.points());
+            if (e.epoch() != 0L) yml.set(qid + ".epoch", e.epoch());
         }
         try {
             yml.save(f);
@@ -72,7 +79,8 @@ public final class YamlStorage implements StorageProvider {
                 for (String qid : yml.getKeys(false)) {
                     boolean completed = yml.getBoolean(qid + ".completed", false);
                     int pts = yml.getInt(qid + ".points", 0);
-                    if (completed) total += pts;
+                    long epoch = yml.getLong(qid + ".epoch", 0L);
+                    if (completed && !ResetEpochs.isStale(qid, epoch)) total += pts;
                 }
                 map.put(id, total);
             } catch (Throwable ignored) {}
@@ -2,6 +2,8 @@ package com.gmail.bobason01.questengine.storage.sql;
 
 import com.gmail.bobason01.questengine.QuestEnginePlugin;
 import com.gmail.bobason01.questengine.progress.PlayerData;
+import com.gmail.bobason01.questengine.progress.ResetEpochs;
+import com.gmail.bobason01.questengine.storage.StorageException;
 import com.gmail.bobason01.questengine.storage.StorageProvider;
 
 import java.sql.*;
@@ -13,6 +15,11 @@ public abstract class AbstractSqlStorage implements StorageProvider {
     protected final QuestEnginePlugin plugin;
     protected final String url;
     protected final Properties props;
+    // 한 트랜잭션(commit)에 담을 최대 행 수 (플레이어 단위로 끊으므로 조금 넘을 수 있음)
+    protected final int batchRows;
+    // 연결 하나를 공유하므로 conn 을 쓰는 메서드는 전부 synchronized
+    // (batch 저장이 autoCommit 을 끄는 동안 다른 스레드의 쿼리가 그 트랜잭션에 섞이지 않게)
+    // batch 저장은 묶음 하나씩만 잠그므로 묶음 사이에 접속 전 load 가 끼어들 수 있음
     private Connection conn;
     private final AtomicBoolean init = new AtomicBoolean(false);
 
@@ -20,11 +27,18 @@ public abstract class AbstractSqlStorage implements StorageProvider {
         this.plugin = plugin;
         this.url = url;
         this.props = props;
+        this.batchRows = Math.max(1, plugin.getConfig().getInt("storage.flush-batch-size", 500));
     }
 
     protected abstract String driverClass();
     protected abstract String createTableSql();
 
+    /**
+     * (uuid, quest_id, active, completed, value, points, epoch) 순서의 upsert 문
+     * 방언마다 문법이 다름 (SQLite: on conflict / MySQL: on duplicate key update)
+     */
+    protected abstract String upsertSql();
+
     protected synchronized Connection connection() {
         try {
             if (conn == null || conn.isClosed()) {
@@ -34,6 +48,9 @@ public abstract class AbstractSqlStorage implements StorageProvider {
                 if (init.compareAndSet(false, true)) {
                     try (Statement st = conn.createStatement()) {
                         st.executeUpdate(createTableSql());
+                        if (!hasColumn(conn, "epoch")) {
+                            st.executeUpdate("alter table qe_progress add column epoch bigint not null default 0");
+                        }
                     }
                 }
             }
@@ -44,12 +61,21 @@ public abstract class AbstractSqlStorage implements StorageProvider {
         }
     }
 
+    private static boolean hasColumn(Connection c, String column) throws SQLException {
+        try (ResultSet rs = c.getMetaData().getColumns(c.getCatalog(), null, "qe_progress", null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+
     @Override
-    public PlayerData load(UUID id, String name) {
+    public synchronized PlayerData load(UUID id, String name) {
         Connection c = connection();
-        if (c == null) return new PlayerData(id, name);
+        if (c == null) throw new StorageException("[SQL] load failed for " + id + ": no connection", null);
         PlayerData d = new PlayerData(id, name);
-        String sql = "select quest_id, active, completed, value, points from qe_progress where uuid = ?";
+        String sql = "select quest_id, active, completed, value, points, epoch from qe_progress where uuid = ?";
         try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, id.toString());
             try (ResultSet rs = ps.executeQuery()) {
@@ -59,33 +85,26 @@ public abstract class AbstractSqlStorage implements StorageProvider {
                     boolean completed = rs.getInt(3) == 1;
                     int value = rs.getInt(4);
                     int points = rs.getInt(5);
-                    if (active) d.start(qid);
-                    if (completed) d.complete(qid, points);
-                    if (value > 0) d.add(qid, value);
+                    long epoch = rs.getLong(6);
+                    d.restore(qid, active, completed, value, points, epoch);
                 }
             }
         } catch (Throwable t) {
-            plugin.getLogger().warning("[SQL] load failed for " + id + ": " + t.getMessage());
+            // 일부 행만 읽힌 결과를 돌려주면 그대로 저장되어 나머지가 사라짐
+            throw new StorageException("[SQL] load failed for " + id + ": " + t.getMessage(), t);
         }
         return d;
     }
 
     @Override
-    public void save(PlayerData d) {
+    public synchronized void save(PlayerData d) {
         Connection c = connection();
         if (c == null) return;
-        Set<String> all = new HashSet<>(d.activeIds());
-        all.addAll(d.completedIds());
-        String upsert = "insert into qe_progress (uuid, quest_id, active, completed, value, points) values (?, ?, ?, ?, ?, ?) " +
-                "on conflict(uuid, quest_id) do update set active = excluded.active, completed = excluded.completed, value = excluded.value, points = excluded.points";
-        try (PreparedStatement ps = c.prepareStatement(upsert)) {
-            for (String qid : all) {
-                ps.setString(1, d.getId().toString());
-                ps.setString(2, qid);
-                ps.setInt(3, d.isActive(qid) ? 1 : 0);
-                ps.setInt(4, d.isCompleted(qid) ? 1 : 0);
-                ps.setInt(5, d.valueOf(qid));
-                ps.setInt(6, d.isCompleted(qid) ? d.pointsOf(qid) : 0);
+        List<PlayerData.Entry> entries = d.entries();
+        try (PreparedStatement ps = c.prepareStatement(upsertSql())) {
+            String uuid = d.getId().toString();
+            for (PlayerData.Entry e : entries) {
+                bindUpsert(ps, uuid, e);
                 ps.addBatch();
             }
             ps.executeBatch();
@@ -95,18 +114,100 @@ public abstract class AbstractSqlStorage implements StorageProvider {
     }
 
     @Override
-    public Map<UUID, Integer> loadAllPointsApprox() {
+    public boolean saveChanges(PlayerData d, List<PlayerData.Entry> changes) {
+        if (changes.isEmpty()) return true;
+        return saveChangesBatch(List.of(new Pending(d, changes))).isEmpty();
+    }
+
+    /**
+     * 여러 플레이어의 바뀐 행을 batchRows 크기의 묶음으로 저장
+     * 묶음마다 upsert / delete 를 각각 executeBatch 한 번 + commit 한 번
+     * 묶음이 실패하면 그 묶음만 롤백하고 해당 플레이어들을 실패로 돌려줌 (플레이어 단위로 끊으므로 한 사람의 변경이 반만 반영되지 않음)
+     * 연결 잠금은 묶음마다 잡고 놓음 (큰 flush 가 접속 중인 플레이어의 load 를 오래 막지 않게)
+     */
+    @Override
+    public List<Pending> saveChangesBatch(List<Pending> batch) {
+        if (batch.isEmpty()) return Collections.emptyList();
+        List<Pending> failed = new ArrayList<>();
+        List<Pending> chunk = new ArrayList<>();
+        int rows = 0;
+        for (Pending p : batch) {
+            chunk.add(p);
+            rows += p.changes().size();
+            if (rows >= batchRows) {
+                if (!commitChunk(chunk)) failed.addAll(chunk);
+                chunk = new ArrayList<>();
+                rows = 0;
+            }
+        }
+        if (!chunk.isEmpty() && !commitChunk(chunk)) failed.addAll(chunk);
+        return failed;
+    }
+
+    private synchronized boolean commitChunk(List<Pending> chunk) {
+        Connection c = connection();
+        if (c == null) return false;
+        try {
+            c.setAutoCommit(false);
+            try (PreparedStatement up = c.prepareStatement(upsertSql());
+                 PreparedStatement del = c.prepareStatement("delete from qe_progress where uuid = ? and quest_id = ?")) {
+                int ups = 0, dels = 0;
+                for (Pending p : chunk) {
+                    String uuid = p.data().getId().toString();
+                    for (PlayerData.Entry e : p.changes()) {
+                        if (e.removed()) {
+                            del.setString(1, uuid);
+                            del.setString(2, e.questId());
+                            del.addBatch();
+                            dels++;
+                        } else {
+                            bindUpsert(up, uuid, e);
+                            up.addBatch();
+                            ups++;
+                        }
+                    }
+                }
+                if (ups > 0) up.executeBatch();
+                if (dels > 0) del.executeBatch();
+            }
+            c.commit();
+            return true;
+        } catch (Throwable t) {
+            try {
+                c.rollback();
+            } catch (Throwable ignored) {}
+            plugin.getLogger().warning("[SQL] batch save failed for " + chunk.size() + " players: " + t.getMessage());
+            return false;
+        } finally {
+            try {
+                c.setAutoCommit(true);
+            } catch (Throwable ignored) {}
+        }
+    }
+
+    private static void bindUpsert(PreparedStatement ps, String uuid, PlayerData.Entry e) throws SQLException {
+        ps.setString(1, uuid);
+        ps.setString(2, e.questId());
+        ps.setInt(3, e.active() ? 1 : 0);
+        ps.setInt(4, e.completed() ? 1 : 0);
+        ps.setInt(5, e.value());
+        ps.setInt(6, e.points());
+        ps.setLong(7, e.epoch());
+    }
+
+    @Override
+    public synchronized Map<UUID, Integer> loadAllPointsApprox() {
         Connection c = connection();
         Map<UUID, Integer> map = new HashMap<>();
         if (c == null) return map;
-        String sql = "select uuid, sum(points) from qe_progress where completed = 1 group by uuid";
+        String sql = "select uuid, quest_id, points, epoch from qe_progress where completed = 1";
         try (PreparedStatement ps = c.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 try {
                     UUID id = UUID.fromString(rs.getString(1));
-                    int total = rs.getInt(2);
-                    map.put(id, total);
+                    if (ResetEpochs.isStale(rs.getString(2), rs.getLong(4))) continue;
+                    map.merge(id, rs.getInt(3), Integer::sum);
                 } catch (Throwable ignored) {}
             }
         } catch (Throwable t) {
@@ -121,7 +222,7 @@ public abstract class AbstractSqlStorage implements StorageProvider {
     }
 
     @Override
-    public void reset(UUID id) {
+    public synchronized void reset(UUID id) {
         Connection c = connection();
         if (c == null) return;
         String sql = "delete from qe_progress where uuid = ?";
@@ -134,7 +235,7 @@ public abstract class AbstractSqlStorage implements StorageProvider {
     }
 
     @Override
-    public void resetQuest(UUID id, String questId) {
+    public synchronized void resetQuest(UUID id, String questId) {
         Connection c = connection();
         if (c == null) return;
         String sql = "delete from qe_progress where uuid = ? and quest_id = ?";
@@ -148,7 +249,7 @@ public abstract class AbstractSqlStorage implements StorageProvider {
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
         try {
             if (conn != null) conn.close();
         } catch (Throwable ignored) {}
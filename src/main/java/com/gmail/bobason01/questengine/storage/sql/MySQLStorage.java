@@ -43,7 +43,14 @@ public final class MySQLStorage extends AbstractSqlStorage {
                 "completed tinyint not null," +
                 "value int not null," +
                 "points int not null," +
+                "epoch bigint not null default 0," +
                 "primary key (uuid, quest_id)" +
                 ") engine=InnoDB default charset=utf8mb4";
     }
+
+    @Override
+    protected String upsertSql() {
+        return "insert into qe_progress (uuid, quest_id, active, completed, value, points, epoch) values (?, ?, ?, ?, ?, ?, ?) " +
+                "on duplicate key update active = values(active), completed = values(completed), value = values(value), points = values(points), epoch = values(epoch)";
+    }
 }
@@ -32,7 +32,14 @@ public final class SQLiteStorage extends AbstractSqlStorage {
                 "completed integer not null," +
                 "value integer not null," +
                 "points integer not null," +
+                "epoch integer not null default 0," +
                 "primary key (uuid, quest_id)" +
                 ")";
     }
+
+    @Override
+    protected String upsertSql() {
+        return "insert into qe_progress (uuid, quest_id, active, completed, value, points, epoch) values (?, ?, ?, ?, ?, ?, ?) " +
+                "on conflict(uuid, quest_id) do update set active = excluded.active, completed = excluded.completed, value = excluded.value, points = excluded.points, epoch = excluded.epoch";
+    }
 }
@@ -0,0 +1,33 @@
+package com.gmail.bobason01.questengine.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * MainThread
+ * - CompletableFuture 결과를 서버 메인 스레드에서 이어 받는 헬퍼
+ * - 메인 스레드에서 호출했고 이미 끝난 future 면 같은 틱에 바로 실행 (캐시 적중 시 한 틱 지연 없음)
+ * - 실패는 로그만 남기고 continuation 은 호출하지 않음
+ */
+public final class MainThread {
+
+    private MainThread() {}
+
+    public static <T> void then(Plugin plugin, CompletableFuture<T> future, Consumer<? super T> action) {
+        if (future.isDone() && !future.isCompletedExceptionally() && Bukkit.isPrimaryThread()) {
+            action.accept(future.join());
+            return;
+        }
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("[QuestEngine] Async task failed: " + error.getMessage());
+                return;
+            }
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> action.accept(value));
+        });
+    }
+}
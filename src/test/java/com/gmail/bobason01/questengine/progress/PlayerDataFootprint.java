@@ -0,0 +1,153 @@
+package com.gmail.bobason01.questengine.progress;
+
+import com.gmail.bobason01.questengine.quest.QuestOrdinals;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlayerDataFootprint
+ * - 플레이어 한 명당 PlayerData 힙 사용량 측정 (단위 테스트 아님, main 으로 실행)
+ * - 현재 구조(ordinal 배열 / 비트셋)와 이전 구조(ConcurrentHashMap<String, Node> + LinkedHashSet)를 같은 조건으로 비교
+ * - 조건: players 명 x quests 개, 절반은 완료 / 나머지는 진행 중 (기본 2000 x 40)
+ *
+ * 실행:
+ *   mvn -q test-compile
+ *   java -Xmx512m -cp target/classes:target/test-classes \
+ *       com.gmail.bobason01.questengine.progress.PlayerDataFootprint [players] [quests]
+ */
+public final class PlayerDataFootprint {
+
+    private PlayerDataFootprint() {}
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int quests = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        // 퀘스트 id 는 저장소가 한 번 만들어 모든 플레이어가 공유 (두 구조 모두 동일)
+        String[] ids = new String[quests];
+        for (int i = 0; i < quests; i++) {
+            ids[i] = "quest_" + i;
+            QuestOrdinals.register(ids[i]);
+        }
+
+        // 워밍업 (클래스 로딩 / 정적 테이블을 측정에서 제외)
+        fillCompact(4, ids);
+        fillLegacy(4, ids);
+
+        long compact = measure(() -> fillCompact(players, ids)) / players;
+        long legacy = measure(() -> fillLegacy(players, ids)) / players;
+
+        System.out.println("players=" + players + " quests=" + quests + " (half completed)");
+        System.out.println("legacy  : " + legacy + " bytes/player");
+        System.out.println("compact : " + compact + " bytes/player");
+        if (compact > 0) System.out.printf(Locale.ROOT, "ratio   : %.2fx%n", (double) legacy / compact);
+    }
+
+    // ------------------------------------------------------------
+    // 측정
+    // ------------------------------------------------------------
+
+    private interface Fill {
+        Object run();
+    }
+
+    /* 만든 객체를 잡아 둔 채 GC 전후 사용량 차이 (여러 번 중 최솟값) */
+    private static long measure(Fill fill) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = used();
+            Object keep = fill.run();
+            long after = used();
+            best = Math.min(best, after - before);
+            if (keep.hashCode() == 42) System.out.print(""); // keep 이 GC 전에 사라지지 않도록
+        }
+        return best;
+    }
+
+    private static long used() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // ------------------------------------------------------------
+    // 데이터 생성
+    // ------------------------------------------------------------
+
+    private static Object fillCompact(int players, String[] ids) {
+        List<PlayerData> out = new ArrayList<>(players);
+        for (int p = 0; p < players; p++) {
+            PlayerData d = new PlayerData(new UUID(p, p), "player" + p);
+            for (int q = 0; q < ids.length; q++) {
+                d.start(ids[q]);
+                d.add(ids[q], q + 1);
+                if (q % 2 == 0) d.complete(ids[q], 10);
+            }
+            d.drainChanges();
+            out.add(d);
+        }
+        return out;
+    }
+
+    private static Object fillLegacy(int players, String[] ids) {
+        List<Legacy> out = new ArrayList<>(players);
+        for (int p = 0; p < players; p++) {
+            Legacy d = new Legacy(new UUID(p, p), "player" + p);
+            for (int q = 0; q < ids.length; q++) {
+                d.start(ids[q]);
+                d.add(ids[q], q + 1);
+                if (q % 2 == 0) d.complete(ids[q], 10);
+            }
+            out.add(d);
+        }
+        return out;
+    }
+
+    /* 이전 PlayerData 의 필드 구성 그대로 (비교 기준) */
+    private static final class Legacy {
+        final UUID id;
+        final String name;
+        final Map<String, Node> map = new ConcurrentHashMap<>(32, 0.75f, 2);
+        final LinkedHashSet<String> activeOrder = new LinkedHashSet<>(8);
+
+        static final class Node {
+            boolean active;
+            boolean completed;
+            int value;
+            int points;
+            long epoch;
+        }
+
+        Legacy(UUID id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        void start(String q) {
+            Node n = map.computeIfAbsent(q, k -> new Node());
+            n.active = true;
+            activeOrder.add(q);
+        }
+
+        void add(String q, int amount) {
+            Node n = map.get(q);
+            if (n != null) n.value += amount;
+        }
+
+        void complete(String q, int pts) {
+            Node n = map.computeIfAbsent(q, k -> new Node());
+            n.active = false;
+            n.completed = true;
+            n.points = pts;
+            activeOrder.remove(q);
+        }
+    }
+}